@@ -0,0 +1,19 @@
+package com.example.weather.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Multi-key access to a remote cache tier in as few round trips as the store allows.
+ * Values are exchanged in their store form, i.e. {@code NullValue} for cached nulls.
+ */
+public interface BatchCacheOperations {
+
+    Map<String, Object> getAll(String cacheName, Collection<String> keys);
+
+    void putAll(String cacheName, Map<String, Object> entries);
+
+    // Duration.ZERO for keys that aren't cached, keys without an expiry are left out
+    Map<String, Duration> getRemainingTtls(String cacheName, Collection<String> keys);
+}
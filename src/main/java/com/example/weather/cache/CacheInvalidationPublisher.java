@@ -0,0 +1,77 @@
+package com.example.weather.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.UUID;
+
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Broadcasts L1 invalidations over Redis pub/sub. Messages are
+ * {@code <nodeId>|<cacheName>|<key>}; an empty key clears the whole cache.
+ */
+@Slf4j
+public class CacheInvalidationPublisher {
+
+    static final String SEPARATOR = "|";
+
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private final byte[] channelBytes;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public CacheInvalidationPublisher(StringRedisTemplate redisTemplate, String channel) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+        this.channelBytes = channel.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public void publishEvict(String cacheName, String key) {
+        publish(cacheName, key);
+    }
+
+    // one pipelined round trip for the whole batch
+    public void publishEvictAll(String cacheName, Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        try {
+            this.redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (String key : keys) {
+                    connection.publish(this.channelBytes, message(cacheName, key));
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Could not publish cache invalidation for {} keys of {}", keys.size(), cacheName, e);
+        }
+    }
+
+    public void publishClear(String cacheName) {
+        publish(cacheName, "");
+    }
+
+    public String getNodeId() {
+        return this.nodeId;
+    }
+
+    public String getChannel() {
+        return this.channel;
+    }
+
+    private byte[] message(String cacheName, String key) {
+        return (this.nodeId + SEPARATOR + cacheName + SEPARATOR + key).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void publish(String cacheName, String key) {
+        try {
+            this.redisTemplate.convertAndSend(this.channel, this.nodeId + SEPARATOR + cacheName + SEPARATOR + key);
+        } catch (RuntimeException e) {
+            // peers fall back to their L1 ttl
+            log.warn("Could not publish cache invalidation for {}::{}", cacheName, key, e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.weather.cache;
+
+import java.time.Duration;
+
+/**
+ * Per-entry time to live, decided from the cache key.
+ */
+@FunctionalInterface
+public interface CacheTtlPolicy {
+
+    /**
+     * @return how long the entry stays cached, {@link Duration#ZERO} for no expiry,
+     *         or {@code null} if it must not be cached at all
+     */
+    Duration ttlFor(String key);
+}
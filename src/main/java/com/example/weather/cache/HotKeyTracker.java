@@ -0,0 +1,75 @@
+package com.example.weather.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Approximate access frequency per cache key. Every read bumps the key's count and
+ * {@link #decay()} halves all counts, so scores follow recent traffic rather than all-time totals.
+ * At most {@code maxTrackedKeys} keys are tracked; new keys wait for a decay to free room.
+ */
+public class HotKeyTracker {
+
+    private final int maxTrackedKeys;
+    private final ConcurrentMap<String, AtomicLong> counts = new ConcurrentHashMap<>();
+
+    public HotKeyTracker(int maxTrackedKeys) {
+        this.maxTrackedKeys = maxTrackedKeys;
+    }
+
+    public void record(String key) {
+        AtomicLong count = this.counts.get(key);
+        if (count == null) {
+            if (this.counts.size() >= this.maxTrackedKeys) {
+                return;
+            }
+            count = this.counts.computeIfAbsent(key, k -> new AtomicLong());
+        }
+        count.incrementAndGet();
+    }
+
+    /** Up to {@code limit} keys with a score of at least {@code minScore}, hottest first. */
+    public List<String> hottest(int limit, long minScore) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        PriorityQueue<Map.Entry<String, Long>> top = new PriorityQueue<>(limit + 1, Map.Entry.comparingByValue());
+        for (Map.Entry<String, AtomicLong> entry : this.counts.entrySet()) {
+            long score = entry.getValue().get();
+            if (score < minScore) {
+                continue;
+            }
+            if (top.size() < limit) {
+                top.add(Map.entry(entry.getKey(), score));
+            } else if (score > top.peek().getValue()) {
+                top.poll();
+                top.add(Map.entry(entry.getKey(), score));
+            }
+        }
+        List<String> keys = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            keys.add(top.poll().getKey());
+        }
+        Collections.reverse(keys);
+        return keys;
+    }
+
+    public void decay() {
+        this.counts.entrySet().removeIf(entry -> entry.getValue().updateAndGet(count -> count >> 1) == 0);
+    }
+
+    public long score(String key) {
+        AtomicLong count = this.counts.get(key);
+        return count == null ? 0 : count.get();
+    }
+
+    public int size() {
+        return this.counts.size();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.weather.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Counts the remote round trips behind each batch call ({@code cache.remote.round.trips}) and
+ * how many keys each one carried ({@code cache.remote.batch.keys}), tagged by cache and operation.
+ */
+public class InstrumentedBatchCacheOperations implements BatchCacheOperations {
+
+    private final BatchCacheOperations delegate;
+    private final MeterRegistry meterRegistry;
+
+    public InstrumentedBatchCacheOperations(BatchCacheOperations delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Map<String, Object> getAll(String cacheName, Collection<String> keys) {
+        record(cacheName, "mget", keys.size());
+        return this.delegate.getAll(cacheName, keys);
+    }
+
+    @Override
+    public void putAll(String cacheName, Map<String, Object> entries) {
+        record(cacheName, "mset", entries.size());
+        this.delegate.putAll(cacheName, entries);
+    }
+
+    @Override
+    public Map<String, Duration> getRemainingTtls(String cacheName, Collection<String> keys) {
+        record(cacheName, "pttl", keys.size());
+        return this.delegate.getRemainingTtls(cacheName, keys);
+    }
+
+    private void record(String cacheName, String operation, int keys) {
+        if (keys == 0) {
+            // answered without talking to the store
+            return;
+        }
+        roundTrips(this.meterRegistry, cacheName, operation).increment();
+        DistributionSummary.builder("cache.remote.batch.keys")
+                .description("Keys carried by one remote cache round trip")
+                .tag("cache", cacheName)
+                .tag("operation", operation)
+                .register(this.meterRegistry)
+                .record(keys);
+    }
+
+    static Counter roundTrips(MeterRegistry meterRegistry, String cacheName, String operation) {
+        return Counter.builder("cache.remote.round.trips")
+                .description("Round trips to the remote cache tier")
+                .tag("cache", cacheName)
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
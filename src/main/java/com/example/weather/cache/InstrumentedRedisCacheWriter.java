@@ -0,0 +1,74 @@
+package com.example.weather.cache;
+
+import java.time.Duration;
+
+import org.springframework.data.redis.cache.CacheStatistics;
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Counts the single-key round trips {@link org.springframework.data.redis.cache.RedisCache} makes,
+ * under the same {@code cache.remote.round.trips} meter as {@link InstrumentedBatchCacheOperations}.
+ */
+public class InstrumentedRedisCacheWriter implements RedisCacheWriter {
+
+    private final RedisCacheWriter delegate;
+    private final MeterRegistry meterRegistry;
+
+    public InstrumentedRedisCacheWriter(RedisCacheWriter delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void put(String name, byte[] key, byte[] value, Duration ttl) {
+        record(name, "set");
+        this.delegate.put(name, key, value, ttl);
+    }
+
+    @Override
+    public byte[] get(String name, byte[] key) {
+        record(name, "get");
+        return this.delegate.get(name, key);
+    }
+
+    @Override
+    public byte[] putIfAbsent(String name, byte[] key, byte[] value, Duration ttl) {
+        record(name, "setnx");
+        return this.delegate.putIfAbsent(name, key, value, ttl);
+    }
+
+    @Override
+    public void remove(String name, byte[] key) {
+        record(name, "del");
+        this.delegate.remove(name, key);
+    }
+
+    @Override
+    public void clean(String name, byte[] pattern) {
+        record(name, "clean");
+        this.delegate.clean(name, pattern);
+    }
+
+    @Override
+    public void clearStatistics(String name) {
+        this.delegate.clearStatistics(name);
+    }
+
+    @Override
+    public RedisCacheWriter withStatisticsCollector(CacheStatisticsCollector cacheStatisticsCollector) {
+        return new InstrumentedRedisCacheWriter(this.delegate.withStatisticsCollector(cacheStatisticsCollector),
+                this.meterRegistry);
+    }
+
+    @Override
+    public CacheStatistics getCacheStatistics(String cacheName) {
+        return this.delegate.getCacheStatistics(cacheName);
+    }
+
+    private void record(String cacheName, String operation) {
+        InstrumentedBatchCacheOperations.roundTrips(this.meterRegistry, cacheName, operation).increment();
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.weather.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.weather.entity.PincodeGeo;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Heap copy of {@code pincode_geo}: a sorted {@code int[]} of pincodes with parallel latitude and
+ * longitude arrays, looked up by binary search, plus a bitset over the 6-digit range for O(1)
+ * membership checks. Readers see an immutable snapshot; reloads and single-row additions swap in
+ * a new one, so lookups never lock. Additions made while a reload's query runs (geocodes that
+ * write-behind hasn't flushed yet) are re-applied on top of the loaded rows.
+ */
+@Slf4j
+@Component
+public class PincodeGeoIndex {
+
+    static final int PINCODE_LIMIT = 1_000_000;
+
+    static final String SELECT_ALL_SQL = "SELECT pincode, latitude, longitude FROM pincode_geo ORDER BY pincode";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    // guarded by this; null while no reload is running
+    private List<PincodeGeo> addedDuringReload;
+
+    private final Object reloadLock = new Object();
+
+    public PincodeGeoIndex(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Allocation-free lookup: writes the pincode's latitude and longitude into {@code coordinates[0]}
+     * and {@code coordinates[1]}, both from the same snapshot.
+     *
+     * @return {@code false}, leaving {@code coordinates} untouched, if the pincode isn't indexed
+     */
+    public boolean find(int pincode, double[] coordinates) {
+        Snapshot current = this.snapshot;
+        int slot = Arrays.binarySearch(current.pincodes, 0, current.size, pincode);
+        if (slot < 0) {
+            return false;
+        }
+        coordinates[0] = current.latitudes[slot];
+        coordinates[1] = current.longitudes[slot];
+        return true;
+    }
+
+    public Optional<PincodeGeo> find(int pincode) {
+        double[] coordinates = new double[2];
+        if (!find(pincode, coordinates)) {
+            return Optional.empty();
+        }
+        return Optional.of(new PincodeGeo(pincode, coordinates[0], coordinates[1]));
+    }
+
+    public boolean contains(int pincode) {
+        return pincode >= 0 && pincode < PINCODE_LIMIT && this.snapshot.known.get(pincode);
+    }
+
+    public int size() {
+        return this.snapshot.size;
+    }
+
+    // copy-on-write; new pincodes are rare once the table is loaded
+    public synchronized void add(PincodeGeo pincodeGeo) {
+        if (this.addedDuringReload != null) {
+            this.addedDuringReload.add(pincodeGeo);
+        }
+        this.snapshot = with(this.snapshot, pincodeGeo);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${weather.geo-index.refresh-interval}",
+            fixedDelayString = "${weather.geo-index.refresh-interval}")
+    public void reload() {
+        synchronized (this.reloadLock) {
+            synchronized (this) {
+                this.addedDuringReload = new ArrayList<>();
+            }
+            try {
+                Snapshot loaded = load();
+                synchronized (this) {
+                    for (PincodeGeo pincodeGeo : this.addedDuringReload) {
+                        loaded = with(loaded, pincodeGeo);
+                    }
+                    this.snapshot = loaded;
+                }
+                log.info("Loaded {} pincodes into the geo index", loaded.size);
+            } catch (DataAccessException e) {
+                // keep serving the previous snapshot, lookups fall back to the repository on a miss
+                log.warn("Could not reload the pincode geo index", e);
+            } finally {
+                synchronized (this) {
+                    this.addedDuringReload = null;
+                }
+            }
+        }
+    }
+
+    private static Snapshot with(Snapshot current, PincodeGeo pincodeGeo) {
+        int pincode = pincodeGeo.getPincode();
+        int slot = Arrays.binarySearch(current.pincodes, 0, current.size, pincode);
+        if (slot >= 0) {
+            if (current.latitudes[slot] == pincodeGeo.getLatitude()
+                    && current.longitudes[slot] == pincodeGeo.getLongitude()) {
+                return current;
+            }
+            double[] latitudes = current.latitudes.clone();
+            double[] longitudes = current.longitudes.clone();
+            latitudes[slot] = pincodeGeo.getLatitude();
+            longitudes[slot] = pincodeGeo.getLongitude();
+            return new Snapshot(current.pincodes, latitudes, longitudes, current.size, current.known);
+        }
+
+        int insertAt = -slot - 1;
+        int size = current.size + 1;
+        int[] pincodes = new int[size];
+        double[] latitudes = new double[size];
+        double[] longitudes = new double[size];
+        copyAround(current.pincodes, pincodes, insertAt, current.size);
+        copyAround(current.latitudes, latitudes, insertAt, current.size);
+        copyAround(current.longitudes, longitudes, insertAt, current.size);
+        pincodes[insertAt] = pincode;
+        latitudes[insertAt] = pincodeGeo.getLatitude();
+        longitudes[insertAt] = pincodeGeo.getLongitude();
+        return new Snapshot(pincodes, latitudes, longitudes, size, knownSet(current.known, pincode));
+    }
+
+    private Snapshot load() {
+        int[][] pincodes = { new int[1024] };
+        double[][] latitudes = { new double[1024] };
+        double[][] longitudes = { new double[1024] };
+        int[] size = { 0 };
+        this.jdbcTemplate.query(SELECT_ALL_SQL, rs -> {
+            int n = size[0];
+            if (n == pincodes[0].length) {
+                pincodes[0] = Arrays.copyOf(pincodes[0], n * 2);
+                latitudes[0] = Arrays.copyOf(latitudes[0], n * 2);
+                longitudes[0] = Arrays.copyOf(longitudes[0], n * 2);
+            }
+            pincodes[0][n] = rs.getInt(1);
+            latitudes[0][n] = rs.getDouble(2);
+            longitudes[0][n] = rs.getDouble(3);
+            size[0] = n + 1;
+        });
+        int n = size[0];
+        BitSet known = new BitSet(PINCODE_LIMIT);
+        for (int i = 0; i < n; i++) {
+            int pincode = pincodes[0][i];
+            if (pincode >= 0 && pincode < PINCODE_LIMIT) {
+                known.set(pincode);
+            }
+        }
+        return new Snapshot(Arrays.copyOf(pincodes[0], n), Arrays.copyOf(latitudes[0], n),
+                Arrays.copyOf(longitudes[0], n), n, known);
+    }
+
+    private static BitSet knownSet(BitSet known, int pincode) {
+        BitSet copy = (BitSet) known.clone();
+        if (pincode >= 0 && pincode < PINCODE_LIMIT) {
+            copy.set(pincode);
+        }
+        return copy;
+    }
+
+    private static void copyAround(Object source, Object target, int insertAt, int size) {
+        System.arraycopy(source, 0, target, 0, insertAt);
+        System.arraycopy(source, insertAt, target, insertAt + 1, size - insertAt);
+    }
+
+    private static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(new int[0], new double[0], new double[0], 0, new BitSet());
+
+        final int[] pincodes;
+        final double[] latitudes;
+        final double[] longitudes;
+        final int size;
+        final BitSet known;
+
+        Snapshot(int[] pincodes, double[] latitudes, double[] longitudes, int size, BitSet known) {
+            this.pincodes = pincodes;
+            this.latitudes = latitudes;
+            this.longitudes = longitudes;
+            this.size = size;
+            this.known = known;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.weather.cache;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/**
+ * MGET reads and pipelined SET writes against the same keys and value encoding
+ * {@link org.springframework.data.redis.cache.RedisCache} uses.
+ */
+public class RedisBatchCacheOperations implements BatchCacheOperations {
+
+    // RedisCache stores cached nulls as the JDK-serialized NullValue
+    private static final byte[] BINARY_NULL_VALUE = RedisSerializer.java().serialize(NullValue.INSTANCE);
+
+    private final RedisConnectionFactory connectionFactory;
+    private final RedisCacheConfiguration cacheConfiguration;
+    private final Map<String, CacheTtlPolicy> ttlPolicies;
+
+    public RedisBatchCacheOperations(RedisConnectionFactory connectionFactory,
+            RedisCacheConfiguration cacheConfiguration) {
+        this(connectionFactory, cacheConfiguration, Collections.emptyMap());
+    }
+
+    public RedisBatchCacheOperations(RedisConnectionFactory connectionFactory,
+            RedisCacheConfiguration cacheConfiguration, Map<String, CacheTtlPolicy> ttlPolicies) {
+        this.connectionFactory = connectionFactory;
+        this.cacheConfiguration = cacheConfiguration;
+        this.ttlPolicies = ttlPolicies;
+    }
+
+    @Override
+    public Map<String, Object> getAll(String cacheName, Collection<String> keys) {
+        Map<String, Object> found = new HashMap<>();
+        if (keys.isEmpty()) {
+            return found;
+        }
+
+        String[] orderedKeys = keys.toArray(new String[0]);
+        byte[][] redisKeys = new byte[orderedKeys.length][];
+        for (int i = 0; i < orderedKeys.length; i++) {
+            redisKeys[i] = redisKey(cacheName, orderedKeys[i]);
+        }
+
+        List<byte[]> values;
+        try (RedisConnection connection = this.connectionFactory.getConnection()) {
+            values = connection.stringCommands().mGet(redisKeys);
+        }
+
+        for (int i = 0; values != null && i < orderedKeys.length; i++) {
+            byte[] value = values.get(i);
+            if (value != null) {
+                found.put(orderedKeys[i], deserialize(value));
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public void putAll(String cacheName, Map<String, Object> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        CacheTtlPolicy ttlPolicy = this.ttlPolicies.get(cacheName);
+
+        try (RedisConnection connection = this.connectionFactory.getConnection()) {
+            connection.openPipeline();
+            try {
+                for (Map.Entry<String, Object> entry : entries.entrySet()) {
+                    Duration ttl = ttlPolicy != null ? ttlPolicy.ttlFor(entry.getKey()) : this.cacheConfiguration.getTtl();
+                    if (ttl == null) {
+                        continue;
+                    }
+                    connection.stringCommands().set(redisKey(cacheName, entry.getKey()), serialize(entry.getValue()),
+                            expiration(ttl), SetOption.upsert());
+                }
+            } finally {
+                connection.closePipeline();
+            }
+        }
+    }
+
+    @Override
+    public Map<String, Duration> getRemainingTtls(String cacheName, Collection<String> keys) {
+        Map<String, Duration> ttls = new HashMap<>();
+        if (keys.isEmpty()) {
+            return ttls;
+        }
+
+        String[] orderedKeys = keys.toArray(new String[0]);
+        List<Object> replies;
+        try (RedisConnection connection = this.connectionFactory.getConnection()) {
+            connection.openPipeline();
+            try {
+                for (String key : orderedKeys) {
+                    connection.keyCommands().pTtl(redisKey(cacheName, key));
+                }
+            } finally {
+                replies = connection.closePipeline();
+            }
+        }
+
+        for (int i = 0; i < orderedKeys.length && i < replies.size(); i++) {
+            long millis = ((Number) replies.get(i)).longValue();
+            if (millis == -2) {
+                ttls.put(orderedKeys[i], Duration.ZERO);
+            } else if (millis >= 0) {
+                ttls.put(orderedKeys[i], Duration.ofMillis(millis));
+            }
+        }
+        return ttls;
+    }
+
+    private static Expiration expiration(Duration ttl) {
+        return ttl.isZero() || ttl.isNegative() ? Expiration.persistent() : Expiration.from(ttl);
+    }
+
+    private byte[] redisKey(String cacheName, String key) {
+        String prefixed = this.cacheConfiguration.getKeyPrefixFor(cacheName) + key;
+        return toBytes(this.cacheConfiguration.getKeySerializationPair().write(prefixed));
+    }
+
+    private byte[] serialize(Object storeValue) {
+        if (storeValue == null || storeValue instanceof NullValue) {
+            return BINARY_NULL_VALUE;
+        }
+        return toBytes(this.cacheConfiguration.getValueSerializationPair().write(storeValue));
+    }
+
+    private Object deserialize(byte[] value) {
+        if (Arrays.equals(value, BINARY_NULL_VALUE)) {
+            return NullValue.INSTANCE;
+        }
+        return this.cacheConfiguration.getValueSerializationPair().read(ByteBuffer.wrap(value));
+    }
+
+    private static byte[] toBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
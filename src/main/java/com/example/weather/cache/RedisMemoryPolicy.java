@@ -0,0 +1,37 @@
+package com.example.weather.cache;
+
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Caps redis memory and picks what gets evicted at the cap. Blank settings leave the server as is;
+ * managed services that reject CONFIG SET have to be configured on their side.
+ */
+@Slf4j
+public class RedisMemoryPolicy {
+
+    private final RedisConnectionFactory connectionFactory;
+    private final String maxMemory;
+    private final String evictionPolicy;
+
+    public RedisMemoryPolicy(RedisConnectionFactory connectionFactory, String maxMemory, String evictionPolicy) {
+        this.connectionFactory = connectionFactory;
+        this.maxMemory = maxMemory;
+        this.evictionPolicy = evictionPolicy;
+    }
+
+    public void apply() {
+        try (RedisConnection connection = this.connectionFactory.getConnection()) {
+            if (!this.maxMemory.isBlank()) {
+                connection.serverCommands().setConfig("maxmemory", this.maxMemory);
+            }
+            if (!this.evictionPolicy.isBlank()) {
+                connection.serverCommands().setConfig("maxmemory-policy", this.evictionPolicy);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not apply redis maxmemory {} / policy {}", this.maxMemory, this.evictionPolicy, e);
+        }
+    }
+}
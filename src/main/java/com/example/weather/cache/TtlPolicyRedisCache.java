@@ -0,0 +1,53 @@
+package com.example.weather.cache;
+
+import java.time.Duration;
+
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+/**
+ * {@link RedisCache} whose writes take their expiry from a {@link CacheTtlPolicy} instead of the
+ * single TTL of the cache configuration.
+ */
+public class TtlPolicyRedisCache extends RedisCache {
+
+    private final CacheTtlPolicy ttlPolicy;
+
+    public TtlPolicyRedisCache(String name, RedisCacheWriter cacheWriter, RedisCacheConfiguration cacheConfig,
+            CacheTtlPolicy ttlPolicy) {
+        super(name, cacheWriter, cacheConfig);
+        this.ttlPolicy = ttlPolicy;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        String cacheKey = createCacheKey(key);
+        Duration ttl = this.ttlPolicy.ttlFor(convertKey(key));
+        if (ttl == null) {
+            return;
+        }
+        Object cacheValue = preProcessCacheValue(value);
+        if (cacheValue == null) {
+            // same as RedisCache when nulls aren't allowed
+            super.put(key, value);
+            return;
+        }
+        getNativeCache().put(getName(), serializeCacheKey(cacheKey), serializeCacheValue(cacheValue), ttl);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        Duration ttl = this.ttlPolicy.ttlFor(convertKey(key));
+        if (ttl == null) {
+            return get(key);
+        }
+        Object cacheValue = preProcessCacheValue(value);
+        if (cacheValue == null) {
+            return super.putIfAbsent(key, value);
+        }
+        byte[] existing = getNativeCache().putIfAbsent(getName(), serializeCacheKey(createCacheKey(key)),
+                serializeCacheValue(cacheValue), ttl);
+        return existing == null ? null : toValueWrapper(deserializeCacheValue(existing));
+    }
+}
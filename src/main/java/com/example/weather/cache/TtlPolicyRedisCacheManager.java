@@ -0,0 +1,37 @@
+package com.example.weather.cache;
+
+import java.util.Map;
+
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+/**
+ * Creates a {@link TtlPolicyRedisCache} for every cache that has a policy, plain
+ * {@link RedisCache}s with the configured TTL for the rest.
+ */
+public class TtlPolicyRedisCacheManager extends RedisCacheManager {
+
+    private final RedisCacheWriter cacheWriter;
+    private final RedisCacheConfiguration defaultCacheConfiguration;
+    private final Map<String, CacheTtlPolicy> ttlPolicies;
+
+    public TtlPolicyRedisCacheManager(RedisCacheWriter cacheWriter, RedisCacheConfiguration defaultCacheConfiguration,
+            Map<String, CacheTtlPolicy> ttlPolicies) {
+        super(cacheWriter, defaultCacheConfiguration);
+        this.cacheWriter = cacheWriter;
+        this.defaultCacheConfiguration = defaultCacheConfiguration;
+        this.ttlPolicies = ttlPolicies;
+    }
+
+    @Override
+    protected RedisCache createRedisCache(String name, RedisCacheConfiguration cacheConfig) {
+        CacheTtlPolicy ttlPolicy = this.ttlPolicies.get(name);
+        if (ttlPolicy == null) {
+            return super.createRedisCache(name, cacheConfig);
+        }
+        return new TtlPolicyRedisCache(name, this.cacheWriter,
+                cacheConfig != null ? cacheConfig : this.defaultCacheConfiguration, ttlPolicy);
+    }
+}
@@ -0,0 +1,293 @@
+package com.example.weather.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * In-heap L1 in front of a shared (Redis) L2. Reads are served from L1 when possible,
+ * writes go to both tiers and tell the other nodes to drop their L1 copy.
+ */
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+    private final Cache remote;
+    private final BatchCacheOperations batchOperations;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    // null when reads of this cache aren't tracked
+    private final HotKeyTracker hotKeyTracker;
+    // null when every key is cacheable
+    private final CacheTtlPolicy ttlPolicy;
+    // null when lookups aren't timed
+    private final MeterRegistry meterRegistry;
+
+    private TwoLevelCache(Builder builder) {
+        super(true);
+        this.name = builder.name;
+        this.local = builder.local;
+        this.remote = builder.remote;
+        this.batchOperations = builder.batchOperations;
+        this.invalidationPublisher = builder.invalidationPublisher;
+        this.hotKeyTracker = builder.hotKeyTracker;
+        this.ttlPolicy = builder.ttlPolicy;
+        this.meterRegistry = builder.meterRegistry;
+    }
+
+    /** The optional collaborators default to off: per-key remote reads, no tracking, every key cacheable, no timing. */
+    public static Builder builder(String name, com.github.benmanes.caffeine.cache.Cache<String, Object> local,
+            Cache remote, CacheInvalidationPublisher invalidationPublisher) {
+        return new Builder(name, local, remote, invalidationPublisher);
+    }
+
+    @Override
+    public String getName() {
+        return this.name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this.remote.getNativeCache();
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        long start = System.nanoTime();
+        String localKey = localKey(key);
+        recordAccess(localKey);
+        Object storeValue = this.local.getIfPresent(localKey);
+        if (storeValue != null) {
+            recordLookup("local", start);
+            return storeValue;
+        }
+
+        ValueWrapper remoteValue = this.remote.get(key);
+        if (remoteValue == null) {
+            recordLookup("miss", start);
+            return null;
+        }
+        storeValue = toStoreValue(remoteValue.get());
+        this.local.put(localKey, storeValue);
+        recordLookup("remote", start);
+        return storeValue;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        if (!isCacheable(localKey(key))) {
+            try {
+                return valueLoader.call();
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+        }
+        T value = this.remote.get(key, valueLoader);
+        this.local.put(localKey(key), toStoreValue(value));
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (!isCacheable(localKey(key))) {
+            return;
+        }
+        this.remote.put(key, value);
+        this.local.put(localKey(key), toStoreValue(value));
+        this.invalidationPublisher.publishEvict(this.name, localKey(key));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        if (!isCacheable(localKey(key))) {
+            return get(key);
+        }
+        ValueWrapper existing = this.remote.putIfAbsent(key, value);
+        Object storeValue = existing != null ? toStoreValue(existing.get()) : toStoreValue(value);
+        this.local.put(localKey(key), storeValue);
+        if (existing == null) {
+            this.invalidationPublisher.publishEvict(this.name, localKey(key));
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        this.remote.evict(key);
+        evictLocal(localKey(key));
+        this.invalidationPublisher.publishEvict(this.name, localKey(key));
+    }
+
+    @Override
+    public void clear() {
+        this.remote.clear();
+        clearLocal();
+        this.invalidationPublisher.publishClear(this.name);
+    }
+
+    /**
+     * Looks up many keys at once: L1 first, then a single batch read against the remote tier.
+     * Only keys that are cached appear in the result.
+     */
+    public Map<String, Object> getAll(Collection<String> keys) {
+        Map<String, Object> found = new HashMap<>();
+        List<String> remoteKeys = new ArrayList<>();
+        for (String key : keys) {
+            recordAccess(key);
+            Object storeValue = this.local.getIfPresent(key);
+            if (storeValue != null) {
+                found.put(key, fromStoreValue(storeValue));
+            } else {
+                remoteKeys.add(key);
+            }
+        }
+        if (remoteKeys.isEmpty()) {
+            return found;
+        }
+
+        Map<String, Object> remoteValues;
+        if (this.batchOperations != null) {
+            remoteValues = this.batchOperations.getAll(this.name, remoteKeys);
+        } else {
+            remoteValues = new HashMap<>();
+            for (String key : remoteKeys) {
+                ValueWrapper remoteValue = this.remote.get(key);
+                if (remoteValue != null) {
+                    remoteValues.put(key, toStoreValue(remoteValue.get()));
+                }
+            }
+        }
+
+        for (Map.Entry<String, Object> entry : remoteValues.entrySet()) {
+            this.local.put(entry.getKey(), entry.getValue());
+            found.put(entry.getKey(), fromStoreValue(entry.getValue()));
+        }
+        return found;
+    }
+
+    public void putAll(Map<String, ?> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        Map<String, Object> storeValues = new HashMap<>();
+        entries.forEach((key, value) -> {
+            if (isCacheable(key)) {
+                storeValues.put(key, toStoreValue(value));
+            }
+        });
+        if (storeValues.isEmpty()) {
+            return;
+        }
+
+        if (this.batchOperations != null) {
+            this.batchOperations.putAll(this.name, storeValues);
+        } else {
+            storeValues.forEach((key, storeValue) -> this.remote.put(key, fromStoreValue(storeValue)));
+        }
+        this.local.putAll(storeValues);
+        this.invalidationPublisher.publishEvictAll(this.name, storeValues.keySet());
+    }
+
+    /** Remaining remote TTL per key, see {@link BatchCacheOperations#getRemainingTtls}. */
+    public Map<String, Duration> getRemainingTtls(Collection<String> keys) {
+        if (this.batchOperations == null || keys.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return this.batchOperations.getRemainingTtls(this.name, keys);
+    }
+
+    public void evictLocal(String key) {
+        this.local.invalidate(key);
+    }
+
+    public void clearLocal() {
+        this.local.invalidateAll();
+    }
+
+    private boolean isCacheable(String key) {
+        return this.ttlPolicy == null || this.ttlPolicy.ttlFor(key) != null;
+    }
+
+    private void recordLookup(String outcome, long start) {
+        if (this.meterRegistry != null) {
+            Timer.builder("cache.lookup")
+                    .description("Single-key lookups by the tier that answered them")
+                    .tag("cache", this.name)
+                    .tag("outcome", outcome)
+                    .register(this.meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void recordAccess(String key) {
+        if (this.hotKeyTracker != null) {
+            this.hotKeyTracker.record(key);
+        }
+    }
+
+    // L1 is keyed the same way the remote tier renders keys, so invalidation messages match
+    static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    public static final class Builder {
+
+        private final String name;
+        private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+        private final Cache remote;
+        private final CacheInvalidationPublisher invalidationPublisher;
+        private BatchCacheOperations batchOperations;
+        private HotKeyTracker hotKeyTracker;
+        private CacheTtlPolicy ttlPolicy;
+        private MeterRegistry meterRegistry;
+
+        private Builder(String name, com.github.benmanes.caffeine.cache.Cache<String, Object> local, Cache remote,
+                CacheInvalidationPublisher invalidationPublisher) {
+            this.name = name;
+            this.local = local;
+            this.remote = remote;
+            this.invalidationPublisher = invalidationPublisher;
+        }
+
+        public Builder batchOperations(BatchCacheOperations batchOperations) {
+            this.batchOperations = batchOperations;
+            return this;
+        }
+
+        public Builder hotKeyTracker(HotKeyTracker hotKeyTracker) {
+            this.hotKeyTracker = hotKeyTracker;
+            return this;
+        }
+
+        public Builder ttlPolicy(CacheTtlPolicy ttlPolicy) {
+            this.ttlPolicy = ttlPolicy;
+            return this;
+        }
+
+        public Builder meterRegistry(MeterRegistry meterRegistry) {
+            this.meterRegistry = meterRegistry;
+            return this;
+        }
+
+        public TwoLevelCache build() {
+            return new TwoLevelCache(this);
+        }
+    }
+}
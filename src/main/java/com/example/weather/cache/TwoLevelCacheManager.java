@@ -0,0 +1,156 @@
+package com.example.weather.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+public class TwoLevelCacheManager implements CacheManager {
+
+    private final CacheManager remoteCacheManager;
+    private final BatchCacheOperations batchOperations;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final long localMaximumSize;
+    private final Duration localTtl;
+    private final Map<String, HotKeyTracker> hotKeyTrackers;
+    private final Map<String, CacheTtlPolicy> ttlPolicies;
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    private TwoLevelCacheManager(Builder builder) {
+        this.remoteCacheManager = builder.remoteCacheManager;
+        this.batchOperations = builder.batchOperations;
+        this.invalidationPublisher = builder.invalidationPublisher;
+        this.localMaximumSize = builder.localMaximumSize;
+        this.localTtl = builder.localTtl;
+        this.hotKeyTrackers = builder.hotKeyTrackers;
+        this.ttlPolicies = builder.ttlPolicies;
+        this.meterRegistry = builder.meterRegistry;
+    }
+
+    /** {@code localCache} is required, the other settings are optional and per cache name where they are maps. */
+    public static Builder builder(CacheManager remoteCacheManager, CacheInvalidationPublisher invalidationPublisher) {
+        return new Builder(remoteCacheManager, invalidationPublisher);
+    }
+
+    @Override
+    public TwoLevelCache getCache(String name) {
+        return this.caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return this.remoteCacheManager.getCacheNames();
+    }
+
+    public TwoLevelCache getCacheIfPresent(String name) {
+        return this.caches.get(name);
+    }
+
+    private TwoLevelCache createCache(String name) {
+        Cache remote = this.remoteCacheManager.getCache(name);
+        CacheTtlPolicy ttlPolicy = this.ttlPolicies.get(name);
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().maximumSize(this.localMaximumSize);
+        com.github.benmanes.caffeine.cache.Cache<String, Object> local = ttlPolicy == null
+                ? builder.expireAfterWrite(this.localTtl).build()
+                : builder.expireAfter(new LocalExpiry(ttlPolicy, this.localTtl)).build();
+        return TwoLevelCache.builder(name, local, remote, this.invalidationPublisher)
+                .batchOperations(this.batchOperations)
+                .hotKeyTracker(this.hotKeyTrackers.get(name))
+                .ttlPolicy(ttlPolicy)
+                .meterRegistry(this.meterRegistry)
+                .build();
+    }
+
+    public static final class Builder {
+
+        private final CacheManager remoteCacheManager;
+        private final CacheInvalidationPublisher invalidationPublisher;
+        private BatchCacheOperations batchOperations;
+        private long localMaximumSize = -1;
+        private Duration localTtl;
+        private Map<String, HotKeyTracker> hotKeyTrackers = Collections.emptyMap();
+        private Map<String, CacheTtlPolicy> ttlPolicies = Collections.emptyMap();
+        private MeterRegistry meterRegistry;
+
+        private Builder(CacheManager remoteCacheManager, CacheInvalidationPublisher invalidationPublisher) {
+            this.remoteCacheManager = remoteCacheManager;
+            this.invalidationPublisher = invalidationPublisher;
+        }
+
+        public Builder localCache(long maximumSize, Duration ttl) {
+            this.localMaximumSize = maximumSize;
+            this.localTtl = ttl;
+            return this;
+        }
+
+        public Builder batchOperations(BatchCacheOperations batchOperations) {
+            this.batchOperations = batchOperations;
+            return this;
+        }
+
+        public Builder hotKeyTrackers(Map<String, HotKeyTracker> hotKeyTrackers) {
+            this.hotKeyTrackers = hotKeyTrackers;
+            return this;
+        }
+
+        public Builder ttlPolicies(Map<String, CacheTtlPolicy> ttlPolicies) {
+            this.ttlPolicies = ttlPolicies;
+            return this;
+        }
+
+        public Builder meterRegistry(MeterRegistry meterRegistry) {
+            this.meterRegistry = meterRegistry;
+            return this;
+        }
+
+        public TwoLevelCacheManager build() {
+            if (this.localMaximumSize < 0 || this.localTtl == null) {
+                throw new IllegalStateException("localCache(maximumSize, ttl) must be set");
+            }
+            return new TwoLevelCacheManager(this);
+        }
+    }
+
+    // an L1 entry never outlives its remote copy, and never the local ttl either
+    private static final class LocalExpiry implements Expiry<String, Object> {
+
+        private final CacheTtlPolicy ttlPolicy;
+        private final Duration localTtl;
+
+        LocalExpiry(CacheTtlPolicy ttlPolicy, Duration localTtl) {
+            this.ttlPolicy = ttlPolicy;
+            this.localTtl = localTtl;
+        }
+
+        @Override
+        public long expireAfterCreate(String key, Object value, long currentTime) {
+            Duration ttl = this.ttlPolicy.ttlFor(key);
+            if (ttl == null) {
+                return 0;
+            }
+            return (ttl.isZero() || ttl.compareTo(this.localTtl) > 0 ? this.localTtl : ttl).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Object value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Object value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.weather.cache;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.example.weather.entity.Weather;
+
+/**
+ * Typed multi-key access to the {@code weather} cache for code that needs several days or pincodes
+ * at once: whatever L1 doesn't hold is read in one MGET and written in one pipelined round trip,
+ * instead of one round trip per key through {@code @Cacheable}.
+ */
+@Component
+public class WeatherCache {
+
+    private final TwoLevelCacheManager cacheManager;
+
+    public WeatherCache(final TwoLevelCacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    // only cached keys appear in the result, cached nulls are left out
+    public Map<String, Weather> getAll(Collection<String> keys) {
+        Map<String, Weather> found = new HashMap<>();
+        cache().getAll(keys).forEach((key, value) -> {
+            if (value instanceof Weather) {
+                found.put(key, (Weather) value);
+            }
+        });
+        return found;
+    }
+
+    public Map<LocalDate, Weather> getDays(Integer pincode, Collection<LocalDate> dates) {
+        Map<String, LocalDate> keys = new LinkedHashMap<>();
+        dates.forEach(date -> keys.put(WeatherCacheKeys.of(pincode, date), date));
+        Map<LocalDate, Weather> found = new HashMap<>();
+        getAll(keys.keySet()).forEach((key, weather) -> found.put(keys.get(key), weather));
+        return found;
+    }
+
+    public Map<Integer, Weather> getPincodes(Collection<Integer> pincodes, LocalDate date) {
+        Map<String, Integer> keys = new LinkedHashMap<>();
+        pincodes.forEach(pincode -> keys.put(WeatherCacheKeys.of(pincode, date), pincode));
+        Map<Integer, Weather> found = new HashMap<>();
+        getAll(keys.keySet()).forEach((key, weather) -> found.put(keys.get(key), weather));
+        return found;
+    }
+
+    public void putAll(Map<String, Weather> entries) {
+        cache().putAll(entries);
+    }
+
+    // keyed by each entry's own pincode and date
+    public void putAll(Collection<Weather> weathers) {
+        Map<String, Weather> entries = new HashMap<>();
+        weathers.forEach(weather -> entries.put(WeatherCacheKeys.of(weather.getPincode(), weather.getDate()), weather));
+        putAll(entries);
+    }
+
+    private TwoLevelCache cache() {
+        return this.cacheManager.getCache(WeatherCacheKeys.CACHE_NAME);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.weather.cache;
+
+import java.time.LocalDate;
+
+/**
+ * Keys of the {@code weather} cache: pincode and epoch day packed into one long
+ * ({@code pincode << 32 | epochDay}), rendered in base 36 - about 10 characters instead of
+ * {@code <pincode>_<yyyy-MM-dd>}'s 17, and decodable without parsing dates.
+ */
+public final class WeatherCacheKeys {
+
+    public static final String CACHE_NAME = "weather";
+
+    private static final int RADIX = 36;
+
+    private WeatherCacheKeys() {
+    }
+
+    // same key WeatherKeyGenerator produces for WeatherService.getWeather
+    public static String of(Integer pincode, LocalDate date) {
+        return Long.toString(pack(pincode, date), RADIX);
+    }
+
+    public static long pack(int pincode, LocalDate date) {
+        return ((long) pincode << 32) | (date.toEpochDay() & 0xFFFFFFFFL);
+    }
+
+    public static Integer pincodeOf(String key) {
+        return (int) (Long.parseLong(key, RADIX) >>> 32);
+    }
+
+    public static LocalDate dateOf(String key) {
+        return LocalDate.ofEpochDay((int) Long.parseLong(key, RADIX));
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.weather.cache;
+
+import java.lang.reflect.Method;
+import java.time.LocalDate;
+
+import org.springframework.cache.interceptor.KeyGenerator;
+
+/**
+ * Builds the {@link WeatherCacheKeys packed key} straight from {@code (Integer pincode, LocalDate date)}
+ * arguments, without evaluating a SpEL expression per call.
+ */
+public class WeatherKeyGenerator implements KeyGenerator {
+
+    @Override
+    public Object generate(Object target, Method method, Object... params) {
+        if (params.length < 2 || !(params[0] instanceof Integer) || !(params[1] instanceof LocalDate)) {
+            throw new IllegalArgumentException(
+                    "Expected (Integer pincode, LocalDate date) arguments on " + method.getName());
+        }
+        return WeatherCacheKeys.of((Integer) params[0], (LocalDate) params[1]);
+    }
+}
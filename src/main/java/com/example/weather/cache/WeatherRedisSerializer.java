@@ -0,0 +1,128 @@
+package com.example.weather.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import com.example.weather.entity.Weather;
+
+/**
+ * Writes {@link Weather} in a fixed binary layout, everything else through JDK serialization:
+ * <pre>
+ * 'W' | flags | id:long? | pincode:int | epochDay:int | temperature:double | place | description
+ * </pre>
+ * Strings are a 2-byte length followed by UTF-8; flags record which nullable fields are present.
+ * JDK streams start with 0xAC, so the first byte tells the two formats apart.
+ */
+public class WeatherRedisSerializer implements RedisSerializer<Object> {
+
+    static final byte WEATHER_V1 = 'W';
+
+    private static final int HAS_ID = 1;
+    private static final int HAS_PINCODE = 1 << 1;
+    private static final int HAS_DATE = 1 << 2;
+    private static final int HAS_PLACE = 1 << 3;
+    private static final int HAS_DESCRIPTION = 1 << 4;
+
+    private final JdkSerializationRedisSerializer fallback;
+
+    public WeatherRedisSerializer(ClassLoader classLoader) {
+        this.fallback = new JdkSerializationRedisSerializer(classLoader);
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value instanceof Weather) {
+            return encode((Weather) value);
+        }
+        return this.fallback.serialize(value);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes != null && bytes.length > 0 && bytes[0] == WEATHER_V1) {
+            return decode(bytes);
+        }
+        return this.fallback.deserialize(bytes);
+    }
+
+    static byte[] encode(Weather weather) {
+        byte[] place = utf8(weather.getPlace());
+        byte[] description = utf8(weather.getDescription());
+        int flags = (weather.getId() != null ? HAS_ID : 0)
+                | (weather.getPincode() != null ? HAS_PINCODE : 0)
+                | (weather.getDate() != null ? HAS_DATE : 0)
+                | (place != null ? HAS_PLACE : 0)
+                | (description != null ? HAS_DESCRIPTION : 0);
+
+        int size = 2 + (weather.getId() != null ? Long.BYTES : 0) + Integer.BYTES + Integer.BYTES + Double.BYTES
+                + Short.BYTES + (place != null ? place.length : 0)
+                + Short.BYTES + (description != null ? description.length : 0);
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(WEATHER_V1);
+        buffer.put((byte) flags);
+        if (weather.getId() != null) {
+            buffer.putLong(weather.getId());
+        }
+        buffer.putInt(weather.getPincode() != null ? weather.getPincode() : 0);
+        buffer.putInt(weather.getDate() != null ? (int) weather.getDate().toEpochDay() : 0);
+        buffer.putDouble(weather.getTemperature());
+        putString(buffer, place);
+        putString(buffer, description);
+        return buffer.array();
+    }
+
+    static Weather decode(byte[] bytes) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            buffer.get();
+            int flags = buffer.get();
+            Weather weather = new Weather();
+            if ((flags & HAS_ID) != 0) {
+                weather.setId(buffer.getLong());
+            }
+            int pincode = buffer.getInt();
+            int epochDay = buffer.getInt();
+            weather.setPincode((flags & HAS_PINCODE) != 0 ? pincode : null);
+            weather.setDate((flags & HAS_DATE) != 0 ? LocalDate.ofEpochDay(epochDay) : null);
+            weather.setTemperature(buffer.getDouble());
+            weather.setPlace(getString(buffer, (flags & HAS_PLACE) != 0));
+            weather.setDescription(getString(buffer, (flags & HAS_DESCRIPTION) != 0));
+            return weather;
+        } catch (RuntimeException e) {
+            throw new SerializationException("Cannot decode cached Weather", e);
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new SerializationException("String too long for the Weather layout: " + bytes.length + " bytes");
+        }
+        return bytes;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        buffer.putShort((short) (bytes != null ? bytes.length : 0));
+        if (bytes != null) {
+            buffer.put(bytes);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer, boolean present) {
+        int length = Short.toUnsignedInt(buffer.getShort());
+        if (!present) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
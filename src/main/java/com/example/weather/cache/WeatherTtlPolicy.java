@@ -0,0 +1,47 @@
+package com.example.weather.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * TTLs for {@link WeatherCacheKeys weather keys}: observed weather for past dates doesn't change and is
+ * kept for {@code pastTtl}, today and the forecast range go stale quickly and get {@code todayTtl},
+ * dates beyond the forecast range are never cached.
+ */
+public class WeatherTtlPolicy implements CacheTtlPolicy {
+
+    private final Clock clock;
+    private final Duration pastTtl;
+    private final Duration todayTtl;
+    private final int forecastDays;
+
+    public WeatherTtlPolicy(Clock clock, Duration pastTtl, Duration todayTtl, int forecastDays) {
+        this.clock = clock;
+        this.pastTtl = pastTtl;
+        this.todayTtl = todayTtl;
+        this.forecastDays = forecastDays;
+    }
+
+    @Override
+    public Duration ttlFor(String key) {
+        LocalDate date;
+        try {
+            date = WeatherCacheKeys.dateOf(key);
+        } catch (RuntimeException e) {
+            return this.todayTtl;
+        }
+        return ttlFor(date);
+    }
+
+    public Duration ttlFor(LocalDate date) {
+        LocalDate today = LocalDate.now(this.clock);
+        if (date.isBefore(today)) {
+            return this.pastTtl;
+        }
+        if (date.isAfter(today.plusDays(this.forecastDays))) {
+            return null;
+        }
+        return this.todayTtl;
+    }
+}
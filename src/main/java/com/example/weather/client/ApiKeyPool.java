@@ -0,0 +1,189 @@
+package com.example.weather.client;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * OpenWeather API keys that calls are spread over round-robin. Each key has its own token bucket
+ * ({@code permitsPerSecond}, bursts up to {@code burst}); a key answered with 401 is benched for
+ * {@code unauthorizedBench}, one answered with 429 for its Retry-After or {@code rateLimitedBench}.
+ * Keys show up in metrics by position only, never by value.
+ */
+public class ApiKeyPool {
+
+    private final List<PooledKey> keys;
+    private final Duration unauthorizedBench;
+    private final Duration rateLimitedBench;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ApiKeyPool(List<String> keys, double permitsPerSecond, double burst, Duration unauthorizedBench,
+            Duration rateLimitedBench, MeterRegistry meterRegistry, String name) {
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException("At least one OpenWeather API key is needed.");
+        }
+        List<PooledKey> pooled = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            pooled.add(new PooledKey(keys.get(i), "key-" + i, permitsPerSecond, burst, meterRegistry, name));
+        }
+        this.keys = Collections.unmodifiableList(pooled);
+        this.unauthorizedBench = unauthorizedBench;
+        this.rateLimitedBench = rateLimitedBench;
+    }
+
+    /** Splits a comma separated list of keys, as {@code weather.api_secret} may hold one. */
+    public static List<String> parseKeys(String keys) {
+        List<String> parsed = new ArrayList<>();
+        for (String key : keys.split(",")) {
+            if (!key.isBlank()) {
+                parsed.add(key.trim());
+            }
+        }
+        return parsed;
+    }
+
+    public int size() {
+        return this.keys.size();
+    }
+
+    /** The next key with budget left that isn't benched, or {@link UpstreamThrottledException}. */
+    public Lease acquire() {
+        long now = System.nanoTime();
+        int start = Math.floorMod(this.next.getAndIncrement(), this.keys.size());
+        for (int i = 0; i < this.keys.size(); i++) {
+            PooledKey key = this.keys.get((start + i) % this.keys.size());
+            if (key.tryTake(now)) {
+                key.requests.increment();
+                return new Lease(key);
+            }
+        }
+        throw new UpstreamThrottledException("Every OpenWeather API key is benched or out of budget");
+    }
+
+    // 401 and 429 say something about the key, everything else about the call
+    private void release(PooledKey key, Throwable failure) {
+        for (Throwable e = failure; e != null; e = e.getCause()) {
+            int status;
+            HttpHeaders headers;
+            if (e instanceof HttpStatusCodeException) {
+                status = ((HttpStatusCodeException) e).getRawStatusCode();
+                headers = ((HttpStatusCodeException) e).getResponseHeaders();
+            } else if (e instanceof WebClientResponseException) {
+                status = ((WebClientResponseException) e).getRawStatusCode();
+                headers = ((WebClientResponseException) e).getHeaders();
+            } else {
+                continue;
+            }
+            if (status == 401) {
+                key.bench(this.unauthorizedBench);
+                key.unauthorized.increment();
+            } else if (status == 429) {
+                key.bench(retryAfter(headers).orElse(this.rateLimitedBench));
+                key.rateLimited.increment();
+            }
+            return;
+        }
+    }
+
+    private static Optional<Duration> retryAfter(HttpHeaders headers) {
+        String retryAfter = headers != null ? headers.getFirst(HttpHeaders.RETRY_AFTER) : null;
+        if (retryAfter == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Duration.ofSeconds(Long.parseLong(retryAfter.trim())));
+        } catch (NumberFormatException e) {
+            // HTTP-date form, not sent by OpenWeather
+            return Optional.empty();
+        }
+    }
+
+    /** One call's use of a key; release it with the call's failure or null. */
+    public final class Lease {
+
+        private final PooledKey key;
+
+        private Lease(PooledKey key) {
+            this.key = key;
+        }
+
+        public String getKey() {
+            return this.key.value;
+        }
+
+        public void release(Throwable failure) {
+            ApiKeyPool.this.release(this.key, failure);
+        }
+    }
+
+    private static final class PooledKey {
+
+        private final String value;
+        private final double permitsPerSecond;
+        private final double burst;
+        private final Counter requests;
+        private final Counter unauthorized;
+        private final Counter rateLimited;
+
+        // guarded by this
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+        private long benchedUntil = System.nanoTime();
+
+        private PooledKey(String value, String id, double permitsPerSecond, double burst,
+                MeterRegistry meterRegistry, String name) {
+            this.value = value;
+            this.permitsPerSecond = permitsPerSecond;
+            this.burst = burst;
+            this.tokens = burst;
+            this.requests = Counter.builder("upstream.key.requests")
+                    .description("Calls sent with this API key").tag("upstream", name).tag("key", id)
+                    .register(meterRegistry);
+            this.unauthorized = benched(meterRegistry, name, id, "unauthorized");
+            this.rateLimited = benched(meterRegistry, name, id, "rate-limited");
+            Gauge.builder("upstream.key.available", this, key -> key.isBenched(System.nanoTime()) ? 0 : 1)
+                    .description("1 while the API key is in rotation, 0 while benched")
+                    .tag("upstream", name).tag("key", id)
+                    .register(meterRegistry);
+        }
+
+        synchronized boolean tryTake(long now) {
+            if (isBenched(now)) {
+                return false;
+            }
+            this.tokens = Math.min(this.burst, this.tokens + (now - this.refilledAt) / 1e9 * this.permitsPerSecond);
+            this.refilledAt = now;
+            if (this.tokens < 1) {
+                return false;
+            }
+            this.tokens--;
+            return true;
+        }
+
+        synchronized void bench(Duration duration) {
+            this.benchedUntil = Math.max(this.benchedUntil, System.nanoTime() + duration.toNanos());
+        }
+
+        synchronized boolean isBenched(long now) {
+            return now - this.benchedUntil < 0;
+        }
+
+        private static Counter benched(MeterRegistry meterRegistry, String name, String id, String reason) {
+            return Counter.builder("upstream.key.benched")
+                    .description("Times the API key was taken out of rotation")
+                    .tag("upstream", name).tag("key", id).tag("reason", reason)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.weather.client;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientException;
+
+import reactor.core.publisher.Mono;
+
+import com.example.weather.entity.PincodeGeo;
+import com.example.weather.entity.Weather;
+import com.example.weather.response.GeocodingApiResponse;
+import com.example.weather.response.WeatherApiResponse;
+
+/**
+ * Non-blocking counterpart of {@link OpenWeatherClient}. No thread waits on the socket;
+ * failures complete the future with a {@link RestClientException}, like the blocking client throws.
+ */
+@Component
+public class AsyncOpenWeatherClient {
+
+    private final WebClient webClient;
+    private final String weatherServiceUrl;
+    private final String weatherServiceApiKey;
+    // null maps responses through the response DTOs
+    private final OpenWeatherResponseParser responseParser;
+    // null when every call uses weatherServiceApiKey
+    private final ApiKeyPool keyPool;
+    // null when calls aren't limited; shared with the blocking client, both spend the same quota
+    private final UpstreamLimiter limiter;
+    // null when calls aren't guarded by a circuit breaker
+    private final UpstreamCircuitBreaker circuitBreaker;
+
+    public AsyncOpenWeatherClient(final WebClient.Builder webClientBuilder, final String weatherServiceUrl,
+            final String weatherServiceApiKey) {
+        this(webClientBuilder, weatherServiceUrl, weatherServiceApiKey, false, Optional.empty(), Optional.empty(),
+                Optional.empty());
+    }
+
+    @Autowired
+    public AsyncOpenWeatherClient(final WebClient.Builder webClientBuilder,
+            @Value("${weather.url}") final String weatherServiceUrl,
+            @Value("${weather.api_secret}") final String weatherServiceApiKey,
+            @Value("${weather.client.streaming-parser}") final boolean streamingParser,
+            final Optional<ApiKeyPool> openWeatherKeyPool,
+            final Optional<UpstreamLimiter> openWeatherLimiter,
+            final Optional<UpstreamCircuitBreaker> openWeatherCircuitBreaker) {
+        this.webClient = webClientBuilder.build();
+        this.weatherServiceUrl = weatherServiceUrl;
+        this.weatherServiceApiKey = weatherServiceApiKey;
+        this.responseParser = streamingParser ? new OpenWeatherResponseParser() : null;
+        this.keyPool = openWeatherKeyPool.orElse(null);
+        this.limiter = openWeatherLimiter.orElse(null);
+        this.circuitBreaker = openWeatherCircuitBreaker.orElse(null);
+    }
+
+    public CompletableFuture<PincodeGeo> fetchPincodeGeo(Integer pincode) {
+        return limited(apiKey -> doFetchPincodeGeo(apiKey, pincode));
+    }
+
+    public CompletableFuture<Weather> fetchWeather(double latitude, double longitude, LocalDate date) {
+        return limited(apiKey -> doFetchWeather(apiKey, latitude, longitude, date));
+    }
+
+    // an open circuit fails before queueing for the limiter; the call isn't sent until a permit is
+    // granted, and waiting for one holds no thread; the key is picked once admitted
+    private <T> CompletableFuture<T> limited(Function<String, CompletableFuture<T>> call) {
+        if (circuitBreaker != null) {
+            try {
+                circuitBreaker.acquirePermission();
+            } catch (UpstreamUnavailableException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        CompletableFuture<UpstreamLimiter.Permit> admitted = limiter != null
+                ? limiter.acquire()
+                : CompletableFuture.completedFuture(null);
+        CompletableFuture<T> result = admitted.thenCompose(permit -> {
+            long started = System.nanoTime();
+            ApiKeyPool.Lease lease = null;
+            CompletableFuture<T> sent;
+            try {
+                lease = keyPool != null ? keyPool.acquire() : null;
+                sent = call.apply(lease != null ? lease.getKey() : weatherServiceApiKey);
+            } catch (RuntimeException e) {
+                sent = CompletableFuture.failedFuture(e);
+            }
+            ApiKeyPool.Lease used = lease;
+            return sent.whenComplete((value, e) -> {
+                if (used != null) {
+                    used.release(e);
+                }
+                if (permit != null) {
+                    permit.release(e);
+                }
+                if (circuitBreaker != null) {
+                    circuitBreaker.record(System.nanoTime() - started, e);
+                }
+            });
+        });
+        if (circuitBreaker != null) {
+            // never sent: frees a half-open trial without counting as an outcome
+            admitted.whenComplete((permit, e) -> {
+                if (e != null) {
+                    circuitBreaker.record(0, e);
+                }
+            });
+        }
+        return result;
+    }
+
+    private CompletableFuture<PincodeGeo> doFetchPincodeGeo(String apiKey, Integer pincode) {
+        String url = OpenWeatherRequests.pincodeGeoUrl(weatherServiceUrl, apiKey, pincode);
+
+        Mono<PincodeGeo> pincodeGeo = responseParser != null
+                ? this.webClient.get().uri(url).retrieve()
+                        .bodyToMono(byte[].class)
+                        .map(body -> responseParser.parsePincodeGeo(body, pincode))
+                : this.webClient.get().uri(url).retrieve()
+                        .bodyToMono(GeocodingApiResponse.class)
+                        .map(response -> OpenWeatherRequests.toPincodeGeo(pincode, response));
+
+        return pincodeGeo
+                .switchIfEmpty(Mono.error(() -> new RestClientException("Empty geocoding response")))
+                .onErrorMap(WebClientException.class, e -> new RestClientException(e.getMessage(), e))
+                .toFuture();
+    }
+
+    private CompletableFuture<Weather> doFetchWeather(String apiKey, double latitude, double longitude, LocalDate date) {
+        String url = OpenWeatherRequests.weatherUrl(weatherServiceUrl, apiKey, latitude, longitude, date);
+
+        Mono<Weather> weather = responseParser != null
+                ? this.webClient.get().uri(url).retrieve()
+                        .bodyToMono(byte[].class)
+                        .map(body -> responseParser.parseWeather(body, date))
+                : this.webClient.get().uri(url).retrieve()
+                        .bodyToMono(WeatherApiResponse.class)
+                        .map(response -> OpenWeatherRequests.toWeather(date, response));
+
+        return weather
+                .switchIfEmpty(Mono.fromSupplier(() -> OpenWeatherRequests.toWeather(date, null)))
+                .onErrorMap(WebClientException.class, e -> new RestClientException(e.getMessage(), e))
+                .toFuture();
+    }
+}
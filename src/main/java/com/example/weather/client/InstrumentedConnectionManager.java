@@ -0,0 +1,65 @@
+package com.example.weather.client;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Pooling connection manager that records how long each lease waited for a connection
+ * and whether the leased connection was reused or has to be opened.
+ */
+public class InstrumentedConnectionManager extends PoolingHttpClientConnectionManager {
+
+    private final Timer reusedLeases;
+    private final Timer newLeases;
+    private final Timer timedOutLeases;
+
+    public InstrumentedConnectionManager(MeterRegistry meterRegistry, String poolName) {
+        this.reusedLeases = leaseTimer(meterRegistry, poolName, "reused");
+        this.newLeases = leaseTimer(meterRegistry, poolName, "new");
+        this.timedOutLeases = leaseTimer(meterRegistry, poolName, "timeout");
+    }
+
+    @Override
+    public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+        ConnectionRequest request = super.requestConnection(route, state);
+        return new ConnectionRequest() {
+
+            @Override
+            public HttpClientConnection get(long timeout, TimeUnit timeUnit)
+                    throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+                long start = System.nanoTime();
+                try {
+                    HttpClientConnection connection = request.get(timeout, timeUnit);
+                    (connection.isOpen() ? reusedLeases : newLeases)
+                            .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    return connection;
+                } catch (ConnectionPoolTimeoutException e) {
+                    timedOutLeases.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    throw e;
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return request.cancel();
+            }
+        };
+    }
+
+    private static Timer leaseTimer(MeterRegistry meterRegistry, String poolName, String connection) {
+        return Timer.builder("http.client.pool.lease")
+                .description("Time spent waiting for a pooled connection")
+                .tag("pool", poolName)
+                .tag("connection", connection)
+                .register(meterRegistry);
+    }
+}
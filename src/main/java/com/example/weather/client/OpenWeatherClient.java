@@ -1,10 +1,14 @@
 package com.example.weather.client;
 
 import java.time.LocalDate;
-import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClientException;
@@ -12,6 +16,7 @@ import org.springframework.web.client.RestTemplate;
 
 import com.example.weather.entity.PincodeGeo;
 import com.example.weather.entity.Weather;
+import com.example.weather.response.ForecastApiResponse;
 import com.example.weather.response.GeocodingApiResponse;
 import com.example.weather.response.WeatherApiResponse;
 
@@ -21,53 +26,158 @@ public class OpenWeatherClient {
     private final RestTemplate restTemplate;
     private final String weatherServiceUrl;
     private final String weatherServiceApiKey;
+    // null maps responses through the response DTOs
+    private final OpenWeatherResponseParser responseParser;
+    // null when every call uses weatherServiceApiKey
+    private final ApiKeyPool keyPool;
+    // null when calls aren't limited
+    private final UpstreamLimiter limiter;
+    // null when calls aren't guarded by a circuit breaker
+    private final UpstreamCircuitBreaker circuitBreaker;
+    // null when slow calls aren't hedged
+    private final UpstreamHedger hedger;
+    // null when every pincode's coordinates are fetched as given
+    private final WeatherCellCache cellCache;
+
+    public OpenWeatherClient(final RestTemplate restTemplate, final String weatherServiceUrl,
+            final String weatherServiceApiKey) {
+        this(restTemplate, weatherServiceUrl, weatherServiceApiKey, false);
+    }
+
+    public OpenWeatherClient(final RestTemplate restTemplate, final String weatherServiceUrl,
+            final String weatherServiceApiKey, final boolean streamingParser) {
+        this(restTemplate, weatherServiceUrl, weatherServiceApiKey, streamingParser, Optional.empty(),
+                Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty());
+    }
 
     @Autowired
     public OpenWeatherClient(final RestTemplate restTemplate,
             @Value("${weather.url}") final String weatherServiceUrl,
-            @Value("${weather.api_secret}") final String weatherServiceApiKey) {
+            @Value("${weather.api_secret}") final String weatherServiceApiKey,
+            @Value("${weather.client.streaming-parser}") final boolean streamingParser,
+            final Optional<ApiKeyPool> openWeatherKeyPool,
+            final Optional<UpstreamLimiter> openWeatherLimiter,
+            final Optional<UpstreamCircuitBreaker> openWeatherCircuitBreaker,
+            final Optional<UpstreamHedger> openWeatherHedger,
+            final Optional<WeatherCellCache> weatherCellCache) {
         this.restTemplate = restTemplate;
         this.weatherServiceUrl = weatherServiceUrl;
         this.weatherServiceApiKey = weatherServiceApiKey;
+        this.responseParser = streamingParser ? new OpenWeatherResponseParser() : null;
+        this.keyPool = openWeatherKeyPool.orElse(null);
+        this.limiter = openWeatherLimiter.orElse(null);
+        this.circuitBreaker = openWeatherCircuitBreaker.orElse(null);
+        this.hedger = openWeatherHedger.orElse(null);
+        this.cellCache = weatherCellCache.orElse(null);
     }
 
     public PincodeGeo fetchPincodeGeo(Integer pincode) throws RestClientException {
-        String url = weatherServiceUrl + "/geo/1.0/zip?zip=" + pincode + ",in&appid=" + weatherServiceApiKey;
+        return hedged("pincode-geo", () -> limited(apiKey -> doFetchPincodeGeo(apiKey, pincode)));
+    }
 
-        ResponseEntity<GeocodingApiResponse> response = restTemplate.getForEntity(url, GeocodingApiResponse.class);
+    public Weather fetchWeather(double latitude, double longitude, LocalDate date)
+            throws RestClientException {
+        if (cellCache != null) {
+            return cellCache.get(latitude, longitude, date, (cellLatitude, cellLongitude) -> hedged("weather",
+                    () -> limited(apiKey -> doFetchWeather(apiKey, cellLatitude, cellLongitude, date))));
+        }
+        return hedged("weather", () -> limited(apiKey -> doFetchWeather(apiKey, latitude, longitude, date)));
+    }
+
+    /**
+     * Today and the next five days in one call, one {@link Weather} per date of the location's
+     * local calendar, pincode not set. Mapped through the response DTOs in either parser mode.
+     */
+    public List<Weather> fetchForecast(double latitude, double longitude) throws RestClientException {
+        return hedged("forecast", () -> limited(apiKey -> doFetchForecast(apiKey, latitude, longitude)));
+    }
+
+    // each attempt, hedge included, passes the circuit breaker and the limiter on its own
+    private <T> T hedged(String operation, Supplier<T> call) {
+        return hedger != null ? hedger.call(operation, call) : call.get();
+    }
+
+    // an open circuit fails before queueing for the limiter; the key is picked once admitted
+    private <T> T limited(Function<String, T> call) {
+        if (circuitBreaker != null) {
+            circuitBreaker.acquirePermission();
+        }
+        long started = System.nanoTime();
+        UpstreamLimiter.Permit permit = null;
+        ApiKeyPool.Lease lease = null;
+        Throwable failure = null;
+        try {
+            permit = limiter != null ? limiter.acquireBlocking() : null;
+            lease = keyPool != null ? keyPool.acquire() : null;
+            started = System.nanoTime();
+            return call.apply(lease != null ? lease.getKey() : weatherServiceApiKey);
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            if (lease != null) {
+                lease.release(failure);
+            }
+            if (permit != null) {
+                permit.release(failure);
+            }
+            if (circuitBreaker != null) {
+                circuitBreaker.record(System.nanoTime() - started, failure);
+            }
+        }
+    }
+
+    private PincodeGeo doFetchPincodeGeo(String apiKey, Integer pincode) {
+        String url = OpenWeatherRequests.pincodeGeoUrl(weatherServiceUrl, apiKey, pincode);
+
+        if (responseParser != null) {
+            return restTemplate.execute(url, HttpMethod.GET, null, response -> {
+                if (!response.getStatusCode().is2xxSuccessful()) {
+                    throw new RestClientException(response.getStatusCode().getReasonPhrase());
+                }
+                return responseParser.parsePincodeGeo(response.getBody(), pincode);
+            });
+        }
 
-        double latitude = 0;
-        double longitude = 0;
+        ResponseEntity<GeocodingApiResponse> response = restTemplate.getForEntity(url, GeocodingApiResponse.class);
 
         if (response.getStatusCode().is2xxSuccessful()) {
-            latitude = response.getBody().getLat();
-            longitude = response.getBody().getLon();
-            return new PincodeGeo(pincode, latitude, longitude);
+            return OpenWeatherRequests.toPincodeGeo(pincode, response.getBody());
         }
 
         throw new RestClientException(response.getStatusCode().getReasonPhrase());
     }
 
-    public Weather fetchWeather(double latitude, double longitude, LocalDate date)
-            throws RestClientException {
+    private Weather doFetchWeather(String apiKey, double latitude, double longitude, LocalDate date) {
+        String url = OpenWeatherRequests.weatherUrl(weatherServiceUrl, apiKey, latitude, longitude, date);
+
+        if (responseParser != null) {
+            return restTemplate.execute(url, HttpMethod.GET, null, response -> {
+                if (!response.getStatusCode().is2xxSuccessful()) {
+                    throw new RestClientException(response.getStatusCode().getReasonPhrase());
+                }
+                return responseParser.parseWeather(response.getBody(), date);
+            });
+        }
 
-        long unixTimestamp = date.atStartOfDay(ZoneOffset.UTC).toEpochSecond();
-        String url = weatherServiceUrl + "/data/2.5/weather?lat=" + latitude + "&lon=" + longitude + "&appid="
-                + weatherServiceApiKey + "&dt=" + unixTimestamp;
         ResponseEntity<WeatherApiResponse> response = restTemplate.getForEntity(url, WeatherApiResponse.class);
 
         if (response.getStatusCode().is2xxSuccessful()) {
-            Weather weather = new Weather();
-            WeatherApiResponse apiResponse = response.getBody();
-            if (apiResponse != null) {
-                weather.setDate(date);
-                weather.setTemperature(apiResponse.getMain().getTemp());
-                weather.setDescription(apiResponse.getWeather().get(0).getDescription());
-                weather.setPlace(apiResponse.getName());
-            }
-            return weather;
+            return OpenWeatherRequests.toWeather(date, response.getBody());
+        }
+
+        throw new RestClientException(response.getStatusCode().getReasonPhrase());
+    }
+
+    private List<Weather> doFetchForecast(String apiKey, double latitude, double longitude) {
+        String url = OpenWeatherRequests.forecastUrl(weatherServiceUrl, apiKey, latitude, longitude);
+
+        ResponseEntity<ForecastApiResponse> response = restTemplate.getForEntity(url, ForecastApiResponse.class);
+
+        if (response.getStatusCode().is2xxSuccessful()) {
+            return OpenWeatherRequests.toForecast(response.getBody());
         }
 
         throw new RestClientException(response.getStatusCode().getReasonPhrase());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,90 @@
+package com.example.weather.client;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.example.weather.entity.PincodeGeo;
+import com.example.weather.entity.Weather;
+import com.example.weather.response.ForecastApiResponse;
+import com.example.weather.response.ForecastCity;
+import com.example.weather.response.ForecastItem;
+import com.example.weather.response.GeocodingApiResponse;
+import com.example.weather.response.WeatherApiResponse;
+
+// urls and response mapping shared by the blocking and the non-blocking client
+final class OpenWeatherRequests {
+
+    private OpenWeatherRequests() {
+    }
+
+    static String pincodeGeoUrl(String weatherServiceUrl, String apiKey, Integer pincode) {
+        return weatherServiceUrl + "/geo/1.0/zip?zip=" + pincode + ",in&appid=" + apiKey;
+    }
+
+    static String weatherUrl(String weatherServiceUrl, String apiKey, double latitude, double longitude,
+            LocalDate date) {
+        long unixTimestamp = date.atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+        return weatherServiceUrl + "/data/2.5/weather?lat=" + latitude + "&lon=" + longitude + "&appid="
+                + apiKey + "&dt=" + unixTimestamp;
+    }
+
+    // 5 day / 3 hour forecast: one call covers today and the next five days
+    static String forecastUrl(String weatherServiceUrl, String apiKey, double latitude, double longitude) {
+        return weatherServiceUrl + "/data/2.5/forecast?lat=" + latitude + "&lon=" + longitude + "&appid=" + apiKey;
+    }
+
+    static PincodeGeo toPincodeGeo(Integer pincode, GeocodingApiResponse apiResponse) {
+        return new PincodeGeo(pincode, apiResponse.getLat(), apiResponse.getLon());
+    }
+
+    static Weather toWeather(LocalDate date, WeatherApiResponse apiResponse) {
+        Weather weather = new Weather();
+        if (apiResponse != null) {
+            weather.setDate(date);
+            weather.setTemperature(apiResponse.getMain().getTemp());
+            weather.setDescription(apiResponse.getWeather().get(0).getDescription());
+            weather.setPlace(apiResponse.getName());
+        }
+        return weather;
+    }
+
+    // one Weather per local date, from the 3-hourly entry closest to local noon
+    static List<Weather> toForecast(ForecastApiResponse apiResponse) {
+        if (apiResponse == null || apiResponse.getList() == null) {
+            return List.of();
+        }
+        ForecastCity city = apiResponse.getCity();
+        ZoneOffset offset = ZoneOffset.ofTotalSeconds(city != null ? city.getTimezone() : 0);
+
+        Map<LocalDate, ForecastItem> noonEntries = new TreeMap<>();
+        Map<LocalDate, Long> noonDistances = new HashMap<>();
+        for (ForecastItem item : apiResponse.getList()) {
+            LocalDateTime local = LocalDateTime.ofEpochSecond(item.getDt(), 0, offset);
+            long distance = Math.abs(Duration.between(local.toLocalDate().atTime(LocalTime.NOON), local).getSeconds());
+            Long best = noonDistances.get(local.toLocalDate());
+            if (best == null || distance < best) {
+                noonDistances.put(local.toLocalDate(), distance);
+                noonEntries.put(local.toLocalDate(), item);
+            }
+        }
+
+        List<Weather> days = new ArrayList<>(noonEntries.size());
+        noonEntries.forEach((date, item) -> {
+            Weather weather = new Weather();
+            weather.setDate(date);
+            weather.setTemperature(item.getMain().getTemp());
+            weather.setDescription(item.getWeather().get(0).getDescription());
+            weather.setPlace(city != null ? city.getName() : null);
+            days.add(weather);
+        });
+        return days;
+    }
+}
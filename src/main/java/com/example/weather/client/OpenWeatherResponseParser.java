@@ -0,0 +1,124 @@
+package com.example.weather.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+
+import org.springframework.web.client.RestClientException;
+
+import com.example.weather.entity.PincodeGeo;
+import com.example.weather.entity.Weather;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Token-level parser for OpenWeather payloads. Reads only the fields we keep straight into
+ * {@link Weather}/{@link PincodeGeo} and skips everything else, without building the
+ * response DTO graph. The factory is shared and recycles its buffers between parses.
+ */
+public class OpenWeatherResponseParser {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    public Weather parseWeather(InputStream body, LocalDate date) {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            return readWeather(parser, date);
+        } catch (IOException e) {
+            throw new RestClientException("Could not parse weather response", e);
+        }
+    }
+
+    public Weather parseWeather(byte[] body, LocalDate date) {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            return readWeather(parser, date);
+        } catch (IOException e) {
+            throw new RestClientException("Could not parse weather response", e);
+        }
+    }
+
+    public PincodeGeo parsePincodeGeo(InputStream body, Integer pincode) {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            return readPincodeGeo(parser, pincode);
+        } catch (IOException e) {
+            throw new RestClientException("Could not parse geocoding response", e);
+        }
+    }
+
+    public PincodeGeo parsePincodeGeo(byte[] body, Integer pincode) {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            return readPincodeGeo(parser, pincode);
+        } catch (IOException e) {
+            throw new RestClientException("Could not parse geocoding response", e);
+        }
+    }
+
+    // { "weather": [ { "description": .. }, .. ], "main": { "temp": .. }, "name": .., ... }
+    private Weather readWeather(JsonParser parser, LocalDate date) throws IOException {
+        Weather weather = new Weather();
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return weather;
+        }
+        weather.setDate(date);
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("main".equals(field) && value == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String mainField = parser.getCurrentName();
+                    parser.nextToken();
+                    if ("temp".equals(mainField)) {
+                        weather.setTemperature(parser.getValueAsDouble());
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else if ("weather".equals(field) && value == JsonToken.START_ARRAY) {
+                readFirstDescription(parser, weather);
+            } else if ("name".equals(field)) {
+                weather.setPlace(parser.getValueAsString());
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return weather;
+    }
+
+    private void readFirstDescription(JsonParser parser, Weather weather) throws IOException {
+        boolean first = true;
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                if (first && "description".equals(field)) {
+                    weather.setDescription(parser.getValueAsString());
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            first = false;
+        }
+    }
+
+    // { "zip": .., "lat": .., "lon": .., ... }
+    private PincodeGeo readPincodeGeo(JsonParser parser, Integer pincode) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new RestClientException("Empty geocoding response");
+        }
+
+        PincodeGeo pincodeGeo = new PincodeGeo(pincode, 0, 0);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if ("lat".equals(field)) {
+                pincodeGeo.setLatitude(parser.getValueAsDouble());
+            } else if ("lon".equals(field)) {
+                pincodeGeo.setLongitude(parser.getValueAsDouble());
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return pincodeGeo;
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.weather.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+/**
+ * Caps the wall-clock time of a whole exchange (lease, connect, request and body read)
+ * by aborting requests that are still running when the deadline passes.
+ * The abort is cancelled once the response is closed or the execution fails, so finished
+ * exchanges don't linger on the scheduler; use a scheduler that removes cancelled tasks.
+ */
+public class TotalTimeoutRequestFactory extends HttpComponentsClientHttpRequestFactory {
+
+    private final Duration totalTimeout;
+    private final ScheduledExecutorService scheduler;
+
+    // handed from postProcessHttpRequest to createRequest, both run on the caller's thread
+    private final ThreadLocal<HttpRequestBase> created = new ThreadLocal<>();
+
+    public TotalTimeoutRequestFactory(HttpClient httpClient, Duration totalTimeout,
+            ScheduledExecutorService scheduler) {
+        super(httpClient);
+        this.totalTimeout = totalTimeout;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+        ClientHttpRequest request;
+        HttpRequestBase abortable;
+        try {
+            request = super.createRequest(uri, httpMethod);
+            abortable = this.created.get();
+        } finally {
+            this.created.remove();
+        }
+        return abortable == null ? request : new DeadlineRequest(request, abortable);
+    }
+
+    @Override
+    protected void postProcessHttpRequest(HttpUriRequest request) {
+        if (request instanceof HttpRequestBase) {
+            this.created.set((HttpRequestBase) request);
+        }
+    }
+
+    private final class DeadlineRequest implements ClientHttpRequest {
+
+        private final ClientHttpRequest delegate;
+        private final HttpRequestBase abortable;
+
+        private DeadlineRequest(ClientHttpRequest delegate, HttpRequestBase abortable) {
+            this.delegate = delegate;
+            this.abortable = abortable;
+        }
+
+        @Override
+        public ClientHttpResponse execute() throws IOException {
+            ScheduledFuture<?> abort = scheduler.schedule(this.abortable::abort, totalTimeout.toMillis(),
+                    TimeUnit.MILLISECONDS);
+            try {
+                return new DeadlineResponse(this.delegate.execute(), abort);
+            } catch (IOException | RuntimeException | Error e) {
+                abort.cancel(false);
+                throw e;
+            }
+        }
+
+        @Override
+        public OutputStream getBody() throws IOException {
+            return this.delegate.getBody();
+        }
+
+        @Override
+        public String getMethodValue() {
+            return this.delegate.getMethodValue();
+        }
+
+        @Override
+        public URI getURI() {
+            return this.delegate.getURI();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return this.delegate.getHeaders();
+        }
+    }
+
+    private static final class DeadlineResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final ScheduledFuture<?> abort;
+
+        private DeadlineResponse(ClientHttpResponse delegate, ScheduledFuture<?> abort) {
+            this.delegate = delegate;
+            this.abort = abort;
+        }
+
+        @Override
+        public HttpStatus getStatusCode() throws IOException {
+            return this.delegate.getStatusCode();
+        }
+
+        @Override
+        public int getRawStatusCode() throws IOException {
+            return this.delegate.getRawStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return this.delegate.getStatusText();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return this.delegate.getBody();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return this.delegate.getHeaders();
+        }
+
+        @Override
+        public void close() {
+            this.abort.cancel(false);
+            this.delegate.close();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.weather.client;
+
+import java.time.Duration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Stops OpenWeather calls while it is failing. Closed, the outcomes of the last {@code windowSize}
+ * calls are kept; once at least {@code minimumCalls} are in and the share of failures (429, 5xx,
+ * transport errors, or calls slower than {@code slowCallThreshold}) reaches {@code failureRateThreshold}
+ * the circuit opens. Open, calls fail at once with {@link UpstreamUnavailableException} for
+ * {@code openDuration}; then up to {@code halfOpenCalls} trial calls go through, and the circuit
+ * closes if they all succeed or opens again on the first failure.
+ */
+public class UpstreamCircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long slowCallThresholdNanos;
+    private final long openDurationNanos;
+    private final int halfOpenCalls;
+
+    private final Counter rejections;
+
+    // guarded by this
+    private State state = State.CLOSED;
+    private final boolean[] outcomes;
+    private int recorded;
+    private int next;
+    private int failures;
+    private long openedAt;
+    private int trialsStarted;
+    private int trialsSucceeded;
+
+    public UpstreamCircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold,
+            Duration slowCallThreshold, Duration openDuration, int halfOpenCalls, MeterRegistry meterRegistry,
+            String name) {
+        this.outcomes = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallThresholdNanos = slowCallThreshold.toNanos();
+        this.openDurationNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+
+        Gauge.builder("upstream.circuit.state", this, breaker -> breaker.getState().ordinal())
+                .description("0 closed, 1 open, 2 half-open").tag("upstream", name).register(meterRegistry);
+        this.rejections = Counter.builder("upstream.circuit.rejected")
+                .description("Calls failed fast while the circuit was open").tag("upstream", name)
+                .register(meterRegistry);
+    }
+
+    /** Throws {@link UpstreamUnavailableException} unless a call may go out now. */
+    public void acquirePermission() {
+        synchronized (this) {
+            if (this.state == State.OPEN && System.nanoTime() - this.openedAt >= this.openDurationNanos) {
+                this.state = State.HALF_OPEN;
+                this.trialsStarted = 0;
+                this.trialsSucceeded = 0;
+            }
+            if (this.state == State.CLOSED) {
+                return;
+            }
+            if (this.state == State.HALF_OPEN && this.trialsStarted < this.halfOpenCalls) {
+                this.trialsStarted++;
+                return;
+            }
+        }
+        this.rejections.increment();
+        throw new UpstreamUnavailableException("OpenWeather is unavailable, calls are suspended");
+    }
+
+    /** Outcome of a call that was permitted; failures that don't point at OpenWeather are ignored. */
+    public void record(long durationNanos, Throwable failure) {
+        boolean failed = failure == null ? durationNanos > this.slowCallThresholdNanos
+                : UpstreamLimiter.isOverload(failure);
+        boolean counted = failure == null || failed;
+
+        synchronized (this) {
+            if (this.state == State.HALF_OPEN) {
+                if (!counted) {
+                    // give the trial slot back
+                    this.trialsStarted--;
+                } else if (failed) {
+                    open();
+                } else if (++this.trialsSucceeded >= this.halfOpenCalls) {
+                    close();
+                }
+                return;
+            }
+            if (this.state != State.CLOSED || !counted) {
+                return;
+            }
+            if (this.recorded == this.outcomes.length && this.outcomes[this.next]) {
+                this.failures--;
+            }
+            this.outcomes[this.next] = failed;
+            this.next = (this.next + 1) % this.outcomes.length;
+            this.recorded = Math.min(this.recorded + 1, this.outcomes.length);
+            if (failed) {
+                this.failures++;
+            }
+            if (this.recorded >= this.minimumCalls
+                    && this.failures >= this.failureRateThreshold * this.recorded) {
+                open();
+            }
+        }
+    }
+
+    public synchronized State getState() {
+        return this.state;
+    }
+
+    // caller holds the lock
+    private void open() {
+        this.state = State.OPEN;
+        this.openedAt = System.nanoTime();
+    }
+
+    // caller holds the lock
+    private void close() {
+        this.state = State.CLOSED;
+        this.recorded = 0;
+        this.next = 0;
+        this.failures = 0;
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.weather.client;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.web.client.RestClientException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Hedged calls: if a call hasn't answered after the {@code percentile} latency of recent successful
+ * calls of the same operation, an identical second call is sent and whichever succeeds first is returned.
+ * Every call adds {@code maxExtraLoad} to a budget (capped at {@code maxBudget}) and every hedge takes
+ * one from it, so hedges stay within that share of upstream traffic. Both attempts run on
+ * {@code executor}; with no thread free the call runs on the caller's thread without a hedge.
+ */
+public class UpstreamHedger {
+
+    private final Executor executor;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long initialDelayNanos;
+    private final int windowSize;
+    private final double maxExtraLoad;
+    private final double maxBudget;
+    private final MeterRegistry meterRegistry;
+    private final String name;
+
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+
+    // guarded by this
+    private double budget;
+
+    public UpstreamHedger(Executor executor, double percentile, Duration minDelay, Duration initialDelay,
+            int windowSize, double maxExtraLoad, double maxBudget, MeterRegistry meterRegistry, String name) {
+        this.executor = executor;
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.initialDelayNanos = initialDelay.toNanos();
+        this.windowSize = windowSize;
+        this.maxExtraLoad = maxExtraLoad;
+        this.maxBudget = maxBudget;
+        this.meterRegistry = meterRegistry;
+        this.name = name;
+    }
+
+    public <T> T call(String operationName, Supplier<T> call) {
+        Operation operation = this.operations.computeIfAbsent(operationName, Operation::new);
+        operation.requests.increment();
+        synchronized (this) {
+            this.budget = Math.min(this.maxBudget, this.budget + this.maxExtraLoad);
+        }
+
+        CompletableFuture<T> primary = attempt(operation, call);
+        if (primary == null) {
+            operation.saturated.increment();
+            return call.get();
+        }
+        try {
+            return primary.get(operation.window.delayNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // slower than the percentile, hedge below
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            throw interrupted();
+        }
+
+        if (!takeBudget()) {
+            operation.budgetExhausted.increment();
+            return await(primary);
+        }
+        CompletableFuture<T> hedge = attempt(operation, call);
+        if (hedge == null) {
+            synchronized (this) {
+                this.budget += 1;
+            }
+            operation.saturated.increment();
+            return await(primary);
+        }
+        operation.hedges.increment();
+
+        // first success wins; fails only once both failed, with the primary's failure
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        AtomicBoolean answered = new AtomicBoolean();
+        AtomicInteger failed = new AtomicInteger();
+        primary.whenComplete((value, e) -> {
+            if (e == null) {
+                if (answered.compareAndSet(false, true)) {
+                    winner.complete(value);
+                }
+            } else if (failed.incrementAndGet() == 2) {
+                winner.completeExceptionally(e);
+            }
+        });
+        hedge.whenComplete((value, e) -> {
+            if (e == null) {
+                if (answered.compareAndSet(false, true)) {
+                    operation.hedgeWins.increment();
+                    winner.complete(value);
+                }
+            } else if (failed.incrementAndGet() == 2) {
+                primary.whenComplete((ignored, primaryFailure) -> winner.completeExceptionally(primaryFailure));
+            }
+        });
+        // the losing call still runs to completion, bounded by the transport's total timeout
+        return await(winner);
+    }
+
+    private <T> CompletableFuture<T> attempt(Operation operation, Supplier<T> call) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long started = System.nanoTime();
+                T value = call.get();
+                operation.window.record(System.nanoTime() - started);
+                return value;
+            }, this.executor);
+        } catch (RejectedExecutionException e) {
+            return null;
+        }
+    }
+
+    private synchronized boolean takeBudget() {
+        if (this.budget < 1) {
+            return false;
+        }
+        this.budget -= 1;
+        return true;
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            throw interrupted();
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    private static RestClientException interrupted() {
+        Thread.currentThread().interrupt();
+        return new RestClientException("Interrupted while waiting for OpenWeather");
+    }
+
+    private final class Operation {
+
+        private final LatencyWindow window = new LatencyWindow();
+        private final Counter requests;
+        private final Counter hedges;
+        private final Counter hedgeWins;
+        private final Counter budgetExhausted;
+        private final Counter saturated;
+
+        private Operation(String operation) {
+            this.requests = counter("upstream.hedge.requests", "Calls eligible for hedging", operation);
+            this.hedges = counter("upstream.hedge.sent", "Hedge calls sent", operation);
+            this.hedgeWins = counter("upstream.hedge.won", "Calls answered by the hedge", operation);
+            this.budgetExhausted = Counter.builder("upstream.hedge.skipped")
+                    .description("Slow calls not hedged")
+                    .tag("upstream", name).tag("operation", operation).tag("reason", "budget")
+                    .register(meterRegistry);
+            this.saturated = Counter.builder("upstream.hedge.skipped")
+                    .description("Slow calls not hedged")
+                    .tag("upstream", name).tag("operation", operation).tag("reason", "saturated")
+                    .register(meterRegistry);
+            Gauge.builder("upstream.hedge.delay", this.window, window -> window.delayNanos() / 1e9)
+                    .description("Current hedge delay").baseUnit("seconds")
+                    .tag("upstream", name).tag("operation", operation)
+                    .register(meterRegistry);
+        }
+
+        private Counter counter(String meter, String description, String operation) {
+            return Counter.builder(meter).description(description)
+                    .tag("upstream", name).tag("operation", operation)
+                    .register(meterRegistry);
+        }
+    }
+
+    // latencies of the last windowSize successful calls; the percentile is recomputed every tenth of a window
+    private final class LatencyWindow {
+
+        private final long[] latencies = new long[windowSize];
+        private int recorded;
+        private int next;
+        private int sinceComputed;
+        private long delayNanos = initialDelayNanos;
+
+        synchronized void record(long latencyNanos) {
+            this.latencies[this.next] = latencyNanos;
+            this.next = (this.next + 1) % this.latencies.length;
+            this.recorded = Math.min(this.recorded + 1, this.latencies.length);
+            if (++this.sinceComputed >= Math.max(1, this.latencies.length / 10)) {
+                this.sinceComputed = 0;
+                long[] sorted = Arrays.copyOf(this.latencies, this.recorded);
+                Arrays.sort(sorted);
+                int index = (int) Math.ceil(percentile * sorted.length) - 1;
+                this.delayNanos = Math.max(minDelayNanos, sorted[Math.max(0, index)]);
+            }
+        }
+
+        synchronized long delayNanos() {
+            return this.delayNanos;
+        }
+    }
+}
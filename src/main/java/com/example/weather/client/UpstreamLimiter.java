@@ -0,0 +1,280 @@
+package com.example.weather.client;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Admits OpenWeather calls under two limits: a token bucket for the per-key quota
+ * ({@code permitsPerSecond}, bursts up to {@code burst}) and an AIMD concurrency limit. The limit
+ * grows by one per {@code limit} fast successes and is multiplied by {@code backoff} when a call is
+ * slower than {@code latencyThreshold}, times out, or gets a 429 or 5xx.
+ * Callers that can't be admitted right away queue (at most {@code maxQueued}, FIFO) for up to
+ * {@code maxWait}, then fail with {@link UpstreamThrottledException}.
+ */
+public class UpstreamLimiter implements AutoCloseable {
+
+    private final double permitsPerSecond;
+    private final double burst;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoff;
+    private final int maxQueued;
+    private final Duration maxWait;
+
+    private final ScheduledThreadPoolExecutor timer;
+    private final Timer waitTimer;
+    private final Counter queueFullRejections;
+    private final Counter timeoutRejections;
+
+    // guarded by this
+    private double tokens;
+    private long refilledAt;
+    private double limit;
+    private int inFlight;
+    private boolean drainScheduled;
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+
+    public UpstreamLimiter(double permitsPerSecond, double burst, int initialLimit, int minLimit, int maxLimit,
+            Duration latencyThreshold, double backoff, int maxQueued, Duration maxWait, MeterRegistry meterRegistry,
+            String name) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoff = backoff;
+        this.maxQueued = maxQueued;
+        this.maxWait = maxWait;
+        this.tokens = burst;
+        this.refilledAt = System.nanoTime();
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+
+        this.timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "upstream-limiter-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timer.setRemoveOnCancelPolicy(true);
+
+        Gauge.builder("upstream.limiter.limit", this, UpstreamLimiter::getLimit)
+                .description("Current adaptive concurrency limit").tag("upstream", name).register(meterRegistry);
+        Gauge.builder("upstream.limiter.in.flight", this, UpstreamLimiter::getInFlight)
+                .description("Admitted calls still running").tag("upstream", name).register(meterRegistry);
+        Gauge.builder("upstream.limiter.queued", this, UpstreamLimiter::getQueued)
+                .description("Calls waiting for admission").tag("upstream", name).register(meterRegistry);
+        this.waitTimer = Timer.builder("upstream.limiter.wait")
+                .description("Time from asking for admission to being admitted").tag("upstream", name)
+                .register(meterRegistry);
+        this.queueFullRejections = rejections(meterRegistry, name, "queue-full");
+        this.timeoutRejections = rejections(meterRegistry, name, "timeout");
+    }
+
+    /** Completes with a permit once admitted, or exceptionally with {@link UpstreamThrottledException}. */
+    public CompletableFuture<Permit> acquire() {
+        Waiter waiter = new Waiter();
+        List<Waiter> admitted;
+        synchronized (this) {
+            if (this.waiters.size() >= this.maxQueued) {
+                this.queueFullRejections.increment();
+                return CompletableFuture.failedFuture(
+                        new UpstreamThrottledException("Too many OpenWeather calls waiting for admission"));
+            }
+            this.waiters.addLast(waiter);
+            admitted = admit();
+        }
+        complete(admitted);
+        if (!waiter.future.isDone()) {
+            waiter.timeout = this.timer.schedule(() -> {
+                synchronized (this) {
+                    // still queued means never admitted
+                    if (!this.waiters.remove(waiter)) {
+                        return;
+                    }
+                }
+                this.timeoutRejections.increment();
+                waiter.future.completeExceptionally(
+                        new UpstreamThrottledException("No OpenWeather call admitted within " + this.maxWait));
+            }, this.maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        }
+        return waiter.future;
+    }
+
+    /** Blocking variant of {@link #acquire()}. */
+    public Permit acquireBlocking() {
+        CompletableFuture<Permit> permit = acquire();
+        try {
+            // the limiter's own timeout fires first, this one only guards against a stalled timer
+            return permit.get(this.maxWait.toNanos() * 2, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            permit.cancel(false);
+            throw new UpstreamThrottledException("Interrupted while waiting for admission");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UpstreamThrottledException) {
+                throw (UpstreamThrottledException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            permit.cancel(false);
+            this.timeoutRejections.increment();
+            throw new UpstreamThrottledException("No OpenWeather call admitted within " + this.maxWait);
+        }
+    }
+
+    public synchronized double getLimit() {
+        return this.limit;
+    }
+
+    public synchronized int getInFlight() {
+        return this.inFlight;
+    }
+
+    public synchronized int getQueued() {
+        return this.waiters.size();
+    }
+
+    @Override
+    public void close() {
+        this.timer.shutdownNow();
+    }
+
+    // 429, 5xx and transport failures mean OpenWeather is overloaded or we are over quota
+    static boolean isOverload(Throwable failure) {
+        for (Throwable e = failure; e != null; e = e.getCause()) {
+            if (e instanceof HttpStatusCodeException) {
+                int status = ((HttpStatusCodeException) e).getRawStatusCode();
+                return status == 429 || status >= 500;
+            }
+            if (e instanceof WebClientResponseException) {
+                int status = ((WebClientResponseException) e).getRawStatusCode();
+                return status == 429 || status >= 500;
+            }
+            if (e instanceof ResourceAccessException || e instanceof WebClientRequestException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void release(long latencyNanos, Throwable failure) {
+        List<Waiter> admitted;
+        synchronized (this) {
+            this.inFlight--;
+            if (failure == null && latencyNanos <= this.latencyThresholdNanos) {
+                this.limit = Math.min(this.maxLimit, this.limit + 1 / this.limit);
+            } else if (failure == null || isOverload(failure)) {
+                this.limit = Math.max(this.minLimit, this.limit * this.backoff);
+            }
+            admitted = admit();
+        }
+        complete(admitted);
+    }
+
+    // caller holds the lock; returns the waiters to complete once it is released
+    private List<Waiter> admit() {
+        refill();
+        List<Waiter> admitted = new ArrayList<>();
+        while (!this.waiters.isEmpty() && this.inFlight < (int) this.limit && this.tokens >= 1) {
+            Waiter waiter = this.waiters.pollFirst();
+            if (waiter.future.isDone()) {
+                // cancelled while queued
+                continue;
+            }
+            this.tokens--;
+            this.inFlight++;
+            admitted.add(waiter);
+        }
+        if (!this.waiters.isEmpty() && this.tokens < 1 && !this.drainScheduled) {
+            this.drainScheduled = true;
+            long nanosToToken = (long) ((1 - this.tokens) / this.permitsPerSecond * 1e9);
+            this.timer.schedule(this::drain, Math.max(nanosToToken, 1), TimeUnit.NANOSECONDS);
+        }
+        return admitted;
+    }
+
+    private void drain() {
+        List<Waiter> admitted;
+        synchronized (this) {
+            this.drainScheduled = false;
+            admitted = admit();
+        }
+        complete(admitted);
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        this.tokens = Math.min(this.burst, this.tokens + (now - this.refilledAt) / 1e9 * this.permitsPerSecond);
+        this.refilledAt = now;
+    }
+
+    private void complete(List<Waiter> admitted) {
+        for (Waiter waiter : admitted) {
+            if (waiter.timeout != null) {
+                waiter.timeout.cancel(false);
+            }
+            long waited = System.nanoTime() - waiter.queuedAt;
+            if (waiter.future.complete(new Permit())) {
+                this.waitTimer.record(waited, TimeUnit.NANOSECONDS);
+            } else {
+                // cancelled before it was admitted: hand the slot and the token back
+                synchronized (this) {
+                    this.inFlight--;
+                    this.tokens = Math.min(this.burst, this.tokens + 1);
+                }
+                drain();
+            }
+        }
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String name, String reason) {
+        return Counter.builder("upstream.limiter.rejected")
+                .description("Calls that were never admitted")
+                .tag("upstream", name)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static final class Waiter {
+
+        private final CompletableFuture<Permit> future = new CompletableFuture<>();
+        private final long queuedAt = System.nanoTime();
+        private volatile ScheduledFuture<?> timeout;
+    }
+
+    /** One admitted call; release it exactly once, with the call's failure or null. */
+    public final class Permit {
+
+        private final long admittedAt = System.nanoTime();
+        private boolean released;
+
+        public void release(Throwable failure) {
+            synchronized (this) {
+                if (this.released) {
+                    return;
+                }
+                this.released = true;
+            }
+            UpstreamLimiter.this.release(System.nanoTime() - this.admittedAt, failure);
+        }
+    }
+}
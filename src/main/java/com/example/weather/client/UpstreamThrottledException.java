@@ -0,0 +1,14 @@
+package com.example.weather.client;
+
+import org.springframework.web.client.RestClientException;
+
+/**
+ * The call was never sent: {@link UpstreamLimiter} had no token or concurrency slot for it in time.
+ * A {@link RestClientException}, so callers treat it like any other failed upstream call.
+ */
+public class UpstreamThrottledException extends RestClientException {
+
+    public UpstreamThrottledException(String message) {
+        super(message);
+    }
+}
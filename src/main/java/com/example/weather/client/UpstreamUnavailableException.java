@@ -0,0 +1,13 @@
+package com.example.weather.client;
+
+import org.springframework.web.client.RestClientException;
+
+/**
+ * The call was never sent: {@link UpstreamCircuitBreaker} is open because OpenWeather has been failing.
+ */
+public class UpstreamUnavailableException extends RestClientException {
+
+    public UpstreamUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.weather.client;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import com.example.weather.entity.Weather;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Snaps coordinates to a fixed grid of {@code cellDegrees} squares and keeps one OpenWeather result per
+ * (cell, date), so pincodes a few hundred metres apart share a single upstream call. Concurrent misses
+ * for the same cell wait for one fetch, made for the cell's centre. Failures are not cached.
+ */
+public class WeatherCellCache {
+
+    @FunctionalInterface
+    public interface Fetcher {
+        Weather fetch(double latitude, double longitude);
+    }
+
+    private final double cellDegrees;
+    private final AsyncCache<CellKey, Weather> cells;
+
+    public WeatherCellCache(double cellDegrees, Duration ttl, long maxSize, MeterRegistry meterRegistry) {
+        this.cellDegrees = cellDegrees;
+        this.cells = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cells, "weather-cell");
+    }
+
+    /** The cell's weather for {@code date}; a fresh copy without id or pincode, callers may modify it. */
+    public Weather get(double latitude, double longitude, LocalDate date, Fetcher fetcher) {
+        long latitudeIndex = cellIndex(latitude);
+        long longitudeIndex = cellIndex(longitude);
+        CellKey key = new CellKey(latitudeIndex, longitudeIndex, date);
+
+        // the first caller fetches on its own thread, no cache lock is held meanwhile
+        CompletableFuture<Weather> fetch = new CompletableFuture<>();
+        CompletableFuture<Weather> cell = this.cells.asMap().putIfAbsent(key, fetch);
+        if (cell == null) {
+            cell = fetch;
+            try {
+                fetch.complete(fetcher.fetch(centre(latitudeIndex), centre(longitudeIndex)));
+            } catch (RuntimeException | Error e) {
+                // failed futures are dropped from the cache
+                fetch.completeExceptionally(e);
+            }
+        }
+        Weather weather = join(cell);
+        return new Weather(null, null, weather.getPlace(), weather.getDate(), weather.getTemperature(),
+                weather.getDescription());
+    }
+
+    private static Weather join(CompletableFuture<Weather> cell) {
+        try {
+            return cell.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    long cellIndex(double degrees) {
+        return (long) Math.floor(degrees / this.cellDegrees);
+    }
+
+    double centre(long index) {
+        return (index + 0.5) * this.cellDegrees;
+    }
+
+    private static final class CellKey {
+
+        private final long latitudeIndex;
+        private final long longitudeIndex;
+        private final LocalDate date;
+
+        private CellKey(long latitudeIndex, long longitudeIndex, LocalDate date) {
+            this.latitudeIndex = latitudeIndex;
+            this.longitudeIndex = longitudeIndex;
+            this.date = date;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof CellKey)) {
+                return false;
+            }
+            CellKey other = (CellKey) o;
+            return this.latitudeIndex == other.latitudeIndex && this.longitudeIndex == other.longitudeIndex
+                    && this.date.equals(other.date);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.latitudeIndex, this.longitudeIndex, this.date);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.weather.config;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+
+import com.example.weather.cache.CacheInvalidationListener;
+import com.example.weather.cache.CacheInvalidationPublisher;
+import com.example.weather.cache.CacheTtlPolicy;
+import com.example.weather.cache.HotKeyTracker;
+import com.example.weather.cache.InstrumentedBatchCacheOperations;
+import com.example.weather.cache.InstrumentedRedisCacheWriter;
+import com.example.weather.cache.RedisBatchCacheOperations;
+import com.example.weather.cache.RedisMemoryPolicy;
+import com.example.weather.cache.TtlPolicyRedisCacheManager;
+import com.example.weather.cache.TwoLevelCacheManager;
+import com.example.weather.cache.WeatherCacheKeys;
+import com.example.weather.cache.WeatherKeyGenerator;
+import com.example.weather.cache.WeatherRedisSerializer;
+import com.example.weather.cache.WeatherTtlPolicy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public CacheInvalidationPublisher cacheInvalidationPublisher(final StringRedisTemplate redisTemplate,
+            @Value("${weather.cache.invalidation-channel}") final String channel) {
+        return new CacheInvalidationPublisher(redisTemplate, channel);
+    }
+
+    @Bean
+    public HotKeyTracker weatherHotKeyTracker(
+            @Value("${weather.refresh-ahead.max-tracked-keys}") final int maxTrackedKeys) {
+        return new HotKeyTracker(maxTrackedKeys);
+    }
+
+    @Bean
+    public WeatherKeyGenerator weatherKeyGenerator() {
+        return new WeatherKeyGenerator();
+    }
+
+    @Bean
+    public WeatherTtlPolicy weatherTtlPolicy(@Value("${weather.cache.zone}") final ZoneId zone,
+            @Value("${weather.cache.ttl.past}") final Duration pastTtl,
+            @Value("${weather.cache.ttl.today}") final Duration todayTtl,
+            @Value("${weather.cache.forecast-days}") final int forecastDays) {
+        return new WeatherTtlPolicy(Clock.system(zone), pastTtl, todayTtl, forecastDays);
+    }
+
+    @Bean(initMethod = "apply")
+    public RedisMemoryPolicy redisMemoryPolicy(final RedisConnectionFactory connectionFactory,
+            @Value("${weather.redis.maxmemory}") final String maxMemory,
+            @Value("${weather.redis.maxmemory-policy}") final String evictionPolicy) {
+        return new RedisMemoryPolicy(connectionFactory, maxMemory, evictionPolicy);
+    }
+
+    @Bean
+    public TwoLevelCacheManager cacheManager(final RedisConnectionFactory connectionFactory,
+            final ResourceLoader resourceLoader, final CacheInvalidationPublisher invalidationPublisher,
+            final HotKeyTracker weatherHotKeyTracker, final WeatherTtlPolicy weatherTtlPolicy,
+            final MeterRegistry meterRegistry,
+            @Value("${weather.cache.ttl.default}") final Duration ttl,
+            @Value("${weather.cache.local.max-size}") final long localMaximumSize,
+            @Value("${weather.cache.local.ttl}") final Duration localTtl) {
+        RedisCacheConfiguration cacheConfiguration = RedisCacheConfiguration
+                .defaultCacheConfig(resourceLoader.getClassLoader())
+                .entryTtl(ttl)
+                .serializeValuesWith(SerializationPair.fromSerializer(
+                        new WeatherRedisSerializer(resourceLoader.getClassLoader())));
+        Map<String, CacheTtlPolicy> ttlPolicies = Map.of(WeatherCacheKeys.CACHE_NAME, weatherTtlPolicy);
+        TtlPolicyRedisCacheManager redisCacheManager = new TtlPolicyRedisCacheManager(
+                new InstrumentedRedisCacheWriter(RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory),
+                        meterRegistry),
+                cacheConfiguration, ttlPolicies);
+        redisCacheManager.initializeCaches();
+        return TwoLevelCacheManager.builder(redisCacheManager, invalidationPublisher)
+                .localCache(localMaximumSize, localTtl)
+                .batchOperations(new InstrumentedBatchCacheOperations(
+                        new RedisBatchCacheOperations(connectionFactory, cacheConfiguration, ttlPolicies), meterRegistry))
+                .hotKeyTrackers(Map.of(WeatherCacheKeys.CACHE_NAME, weatherHotKeyTracker))
+                .ttlPolicies(ttlPolicies)
+                .meterRegistry(meterRegistry)
+                .build();
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+            final RedisConnectionFactory connectionFactory, final TwoLevelCacheManager cacheManager,
+            final CacheInvalidationPublisher invalidationPublisher) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                new CacheInvalidationListener(cacheManager, invalidationPublisher.getNodeId()),
+                new ChannelTopic(invalidationPublisher.getChannel()));
+        return container;
+    }
+}
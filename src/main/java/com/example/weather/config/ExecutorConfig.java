@@ -0,0 +1,50 @@
+package com.example.weather.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    // caps how many OpenWeather calls batch requests keep in flight, across all callers
+    @Bean
+    public ThreadPoolTaskExecutor upstreamExecutor(
+            @Value("${weather.batch.max-concurrency}") final int maxConcurrency) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setThreadNamePrefix("upstream-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    // redis and JDBC calls of the async path block, so they get their own bounded pool off the request threads
+    @Bean
+    public ThreadPoolTaskExecutor blockingIoExecutor(@Value("${weather.async.io-threads}") final int ioThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(ioThreads);
+        executor.setMaxPoolSize(ioThreads);
+        executor.setThreadNamePrefix("blocking-io-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    // hedged OpenWeather calls wait here instead of on the caller; no queue, a full pool means no hedge
+    @Bean
+    @ConditionalOnProperty(name = "weather.client.hedging.enabled", havingValue = "true")
+    public ThreadPoolTaskExecutor hedgingExecutor(@Value("${weather.client.hedging.max-threads}") final int maxThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxThreads);
+        executor.setMaxPoolSize(maxThreads);
+        executor.setQueueCapacity(0);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("hedging-");
+        executor.initialize();
+        return executor;
+    }
+}
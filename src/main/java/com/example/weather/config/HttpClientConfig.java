@@ -0,0 +1,169 @@
+package com.example.weather.config;
+
+import java.net.URI;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpHost;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.client.RestTemplate;
+
+import com.example.weather.client.ApiKeyPool;
+import com.example.weather.client.InstrumentedConnectionManager;
+import com.example.weather.client.TotalTimeoutRequestFactory;
+import com.example.weather.client.UpstreamCircuitBreaker;
+import com.example.weather.client.UpstreamHedger;
+import com.example.weather.client.UpstreamLimiter;
+import com.example.weather.client.WeatherCellCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.netty.channel.ChannelOption;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * HTTP transport for OpenWeather: keep-alive pools with bounded size, lease/connect/read/total
+ * timeouts and gzip, for both the blocking and the non-blocking client, plus the circuit breaker
+ * and the rate and concurrency limit both clients admit their calls through, the API keys they spread
+ * calls over, opt-in hedging, and the coordinate grid blocking weather calls are shared on.
+ */
+@Configuration
+@EnableConfigurationProperties({ OpenWeatherHttpProperties.class, OpenWeatherLimiterProperties.class,
+        OpenWeatherCircuitBreakerProperties.class, OpenWeatherHedgingProperties.class,
+        OpenWeatherKeyPoolProperties.class, OpenWeatherGridProperties.class })
+public class HttpClientConfig {
+
+    private static final String POOL_NAME = "openweather";
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient openWeatherHttpClient(final OpenWeatherHttpProperties properties,
+            final MeterRegistry meterRegistry, @Value("${weather.url}") final String weatherServiceUrl) {
+        InstrumentedConnectionManager connectionManager = new InstrumentedConnectionManager(meterRegistry, POOL_NAME);
+        connectionManager.setMaxTotal(properties.getMaxTotal());
+        connectionManager.setDefaultMaxPerRoute(properties.getMaxPerRoute());
+        connectionManager.setMaxPerRoute(openWeatherRoute(weatherServiceUrl), properties.getMaxPerRoute());
+        connectionManager.setValidateAfterInactivity((int) properties.getIdleTimeout().toMillis() / 2);
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, POOL_NAME).bindTo(meterRegistry);
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout((int) properties.getLeaseTimeout().toMillis())
+                .setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+                .setSocketTimeout((int) properties.getReadTimeout().toMillis())
+                .build();
+
+        HttpClientBuilder builder = HttpClientBuilder.create()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(properties.getIdleTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        if (!properties.isCompression()) {
+            builder.disableContentCompression();
+        }
+        return builder.build();
+    }
+
+    @Bean
+    public RestTemplate restTemplate(final CloseableHttpClient openWeatherHttpClient,
+            final OpenWeatherHttpProperties properties) {
+        ScheduledThreadPoolExecutor abortScheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = Executors.defaultThreadFactory().newThread(runnable);
+            thread.setName("openweather-total-timeout");
+            thread.setDaemon(true);
+            return thread;
+        });
+        abortScheduler.setRemoveOnCancelPolicy(true);
+
+        return new RestTemplateBuilder()
+                .requestFactory(() -> new TotalTimeoutRequestFactory(openWeatherHttpClient,
+                        properties.getTotalTimeout(), abortScheduler))
+                .build();
+    }
+
+    // picked up by the auto-configured WebClient.Builder the async client is built from
+    @Bean
+    public ReactorClientHttpConnector openWeatherClientHttpConnector(final OpenWeatherHttpProperties properties) {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder(POOL_NAME)
+                .maxConnections(properties.getMaxPerRoute())
+                .pendingAcquireTimeout(properties.getLeaseTimeout())
+                .maxIdleTime(properties.getIdleTimeout())
+                .metrics(true)
+                .build();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getTotalTimeout())
+                .compress(properties.isCompression());
+        return new ReactorClientHttpConnector(httpClient);
+    }
+
+    // per-key budgets come from the limiter settings, which are per key
+    @Bean
+    public ApiKeyPool openWeatherKeyPool(@Value("${weather.api_secret}") final String weatherServiceApiKeys,
+            final OpenWeatherLimiterProperties limiterProperties, final OpenWeatherKeyPoolProperties properties,
+            final MeterRegistry meterRegistry) {
+        return new ApiKeyPool(ApiKeyPool.parseKeys(weatherServiceApiKeys), limiterProperties.getPermitsPerSecond(),
+                limiterProperties.getBurst(), properties.getUnauthorizedBench(), properties.getRateLimitedBench(),
+                meterRegistry, POOL_NAME);
+    }
+
+    // the token bucket covers every key in the pool
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "weather.client.limiter.enabled", havingValue = "true", matchIfMissing = true)
+    public UpstreamLimiter openWeatherLimiter(final OpenWeatherLimiterProperties properties,
+            final ApiKeyPool openWeatherKeyPool, final MeterRegistry meterRegistry) {
+        int keys = openWeatherKeyPool.size();
+        return new UpstreamLimiter(properties.getPermitsPerSecond() * keys, properties.getBurst() * keys,
+                properties.getInitialConcurrency(), properties.getMinConcurrency(), properties.getMaxConcurrency(),
+                properties.getLatencyThreshold(), properties.getBackoff(), properties.getMaxQueued(),
+                properties.getMaxWait(), meterRegistry, POOL_NAME);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "weather.client.circuit-breaker.enabled", havingValue = "true",
+            matchIfMissing = true)
+    public UpstreamCircuitBreaker openWeatherCircuitBreaker(final OpenWeatherCircuitBreakerProperties properties,
+            final MeterRegistry meterRegistry) {
+        return new UpstreamCircuitBreaker(properties.getWindowSize(), properties.getMinimumCalls(),
+                properties.getFailureRateThreshold(), properties.getSlowCallThreshold(),
+                properties.getOpenDuration(), properties.getHalfOpenCalls(), meterRegistry, POOL_NAME);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "weather.client.hedging.enabled", havingValue = "true")
+    public UpstreamHedger openWeatherHedger(final OpenWeatherHedgingProperties properties,
+            @Qualifier("hedgingExecutor") final Executor hedgingExecutor, final MeterRegistry meterRegistry) {
+        return new UpstreamHedger(hedgingExecutor, properties.getPercentile(), properties.getMinDelay(),
+                properties.getInitialDelay(), properties.getWindowSize(), properties.getMaxExtraLoad(),
+                properties.getMaxBudget(), meterRegistry, POOL_NAME);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "weather.client.grid.enabled", havingValue = "true", matchIfMissing = true)
+    public WeatherCellCache weatherCellCache(final OpenWeatherGridProperties properties,
+            final MeterRegistry meterRegistry) {
+        return new WeatherCellCache(properties.getCellDegrees(), properties.getTtl(), properties.getMaxSize(),
+                meterRegistry);
+    }
+
+    // must equal the route HttpClient plans for OpenWeather requests, including the resolved default port
+    private static HttpRoute openWeatherRoute(String weatherServiceUrl) {
+        URI uri = URI.create(weatherServiceUrl);
+        boolean secure = "https".equalsIgnoreCase(uri.getScheme());
+        int port = uri.getPort() > 0 ? uri.getPort() : (secure ? 443 : 80);
+        return new HttpRoute(new HttpHost(uri.getHost(), port, uri.getScheme()), null, secure);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.weather.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+@ConfigurationProperties(prefix = "weather.client.circuit-breaker")
+@Getter
+@Setter
+@ToString
+public class OpenWeatherCircuitBreakerProperties {
+
+    private boolean enabled = true;
+
+    // closed: trips on the failure share of the last window-size calls
+    private int windowSize = 20;
+    private int minimumCalls = 10;
+    private double failureRateThreshold = 0.5;
+    private Duration slowCallThreshold = Duration.ofSeconds(3);
+
+    // open, then half-open
+    private Duration openDuration = Duration.ofSeconds(30);
+    private int halfOpenCalls = 3;
+}
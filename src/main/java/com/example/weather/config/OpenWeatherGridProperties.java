@@ -0,0 +1,24 @@
+package com.example.weather.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+@ConfigurationProperties(prefix = "weather.client.grid")
+@Getter
+@Setter
+@ToString
+public class OpenWeatherGridProperties {
+
+    private boolean enabled = true;
+
+    // 0.02 degrees is about 2.2 km north-south
+    private double cellDegrees = 0.02;
+
+    private Duration ttl = Duration.ofMinutes(30);
+    private long maxSize = 50000;
+}
@@ -0,0 +1,30 @@
+package com.example.weather.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+@ConfigurationProperties(prefix = "weather.client.hedging")
+@Getter
+@Setter
+@ToString
+public class OpenWeatherHedgingProperties {
+
+    private boolean enabled = false;
+
+    // delay before the hedge: percentile of the last window-size successful calls
+    private double percentile = 0.95;
+    private int windowSize = 1000;
+    private Duration minDelay = Duration.ofMillis(200);
+    private Duration initialDelay = Duration.ofSeconds(1);
+
+    // budget: hedges per call, and how many may be saved up for a burst of slow calls
+    private double maxExtraLoad = 0.05;
+    private double maxBudget = 10;
+
+    private int maxThreads = 64;
+}
@@ -0,0 +1,29 @@
+package com.example.weather.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+@ConfigurationProperties(prefix = "weather.http")
+@Getter
+@Setter
+@ToString
+public class OpenWeatherHttpProperties {
+
+    // pool
+    private int maxTotal = 200;
+    private int maxPerRoute = 50;
+    private Duration idleTimeout = Duration.ofSeconds(30);
+
+    // timeouts
+    private Duration leaseTimeout = Duration.ofSeconds(1);
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(5);
+    private Duration totalTimeout = Duration.ofSeconds(8);
+
+    private boolean compression = true;
+}
@@ -0,0 +1,20 @@
+package com.example.weather.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+@ConfigurationProperties(prefix = "weather.client.keys")
+@Getter
+@Setter
+@ToString
+public class OpenWeatherKeyPoolProperties {
+
+    // how long a key stays out of rotation
+    private Duration unauthorizedBench = Duration.ofMinutes(5);
+    private Duration rateLimitedBench = Duration.ofSeconds(30);
+}
@@ -0,0 +1,33 @@
+package com.example.weather.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+@ConfigurationProperties(prefix = "weather.client.limiter")
+@Getter
+@Setter
+@ToString
+public class OpenWeatherLimiterProperties {
+
+    private boolean enabled = true;
+
+    // token bucket
+    private double permitsPerSecond = 50;
+    private double burst = 50;
+
+    // adaptive concurrency
+    private int initialConcurrency = 16;
+    private int minConcurrency = 2;
+    private int maxConcurrency = 64;
+    private Duration latencyThreshold = Duration.ofSeconds(1);
+    private double backoff = 0.75;
+
+    // wait queue
+    private int maxQueued = 200;
+    private Duration maxWait = Duration.ofSeconds(2);
+}
@@ -1,41 +1,79 @@
 package com.example.weather.controller;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.example.weather.cache.WeatherTtlPolicy;
+import com.example.weather.dto.WeatherBatchItem;
+import com.example.weather.dto.WeatherBatchResult;
 import com.example.weather.entity.Weather;
 import com.example.weather.exception.PincodeNotFoundException;
 import com.example.weather.exception.WeatherNotFoundException;
+import com.example.weather.exception.WeatherUnavailableException;
+import com.example.weather.service.AsyncWeatherService;
+import com.example.weather.service.PincodeValidator;
+import com.example.weather.service.WeatherBatchService;
 import com.example.weather.service.WeatherService;
 
 @RestController
 @RequestMapping(value = "/api/v1", headers = "Accept=application/json")
 public class WeatherController {
 
+    private static final String STALE_WARNING = "110 - \"Response is Stale\"";
+
+    // max-age for dates whose cache TTL is "no expiry"
+    private static final Duration IMMUTABLE_MAX_AGE = Duration.ofDays(365);
+
     @Autowired
     WeatherService weatherService;
 
+    @Autowired
+    WeatherBatchService weatherBatchService;
+
+    @Autowired
+    AsyncWeatherService asyncWeatherService;
+
+    @Autowired
+    PincodeValidator pincodeValidator;
+
+    @Autowired
+    WeatherTtlPolicy weatherTtlPolicy;
+
     @GetMapping("/weather")
     public ResponseEntity<Weather> getWeather(
             @RequestParam Integer pincode,
             @RequestParam @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate date) {
 
+        rejectInvalidPincode(pincode);
         Weather weather = null;
 
         try {
             weather = this.weatherService.getWeather(pincode, date);
-            return ResponseEntity.ok(weather);
+            return cacheableResponse(weather);
+        }
+        catch (WeatherUnavailableException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
         }
         catch (PincodeNotFoundException | WeatherNotFoundException e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
@@ -46,4 +84,80 @@ public class WeatherController {
         
     }
 
+    @GetMapping("/weather/async")
+    public CompletableFuture<ResponseEntity<Weather>> getWeatherAsync(
+            @RequestParam Integer pincode,
+            @RequestParam @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate date) {
+
+        rejectInvalidPincode(pincode);
+        return this.asyncWeatherService.getWeather(pincode, date)
+                .thenApply(this::cacheableResponse)
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof WeatherUnavailableException) {
+                        throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, cause.getMessage());
+                    }
+                    if (cause instanceof PincodeNotFoundException || cause instanceof WeatherNotFoundException) {
+                        throw new ResponseStatusException(HttpStatus.NOT_FOUND, cause.getMessage());
+                    }
+                    throw e instanceof CompletionException ? (CompletionException) e : new CompletionException(e);
+                });
+    }
+
+    @GetMapping("/weather/range")
+    public ResponseEntity<List<WeatherBatchResult>> getWeatherRange(
+            @RequestParam Integer pincode,
+            @RequestParam @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate from,
+            @RequestParam @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate to) {
+
+        rejectInvalidPincode(pincode);
+        try {
+            return ResponseEntity.ok(this.weatherBatchService.getRange(pincode, from, to));
+        }
+        catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @PostMapping("/weather/batch")
+    public ResponseEntity<List<WeatherBatchResult>> getWeatherBatch(@RequestBody List<WeatherBatchItem> items) {
+
+        try {
+            return ResponseEntity.ok(this.weatherBatchService.getWeather(items));
+        }
+        catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    // a matching If-None-Match is answered with 304 by Spring before the body is serialized
+    private ResponseEntity<Weather> cacheableResponse(Weather weather) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etagOf(weather));
+        if (weather.isStale()) {
+            return response.cacheControl(CacheControl.noCache()).header(HttpHeaders.WARNING, STALE_WARNING).body(weather);
+        }
+        return response.cacheControl(cacheControlFor(weather.getDate())).body(weather);
+    }
+
+    // same lifetime as the weather cache: long for past dates, short for today and the forecast range
+    private CacheControl cacheControlFor(LocalDate date) {
+        Duration ttl = this.weatherTtlPolicy.ttlFor(date);
+        if (ttl == null) {
+            return CacheControl.noCache();
+        }
+        return CacheControl.maxAge(ttl.isZero() ? IMMUTABLE_MAX_AGE : ttl).cachePublic();
+    }
+
+    private static String etagOf(Weather weather) {
+        String content = weather.getPincode() + "|" + weather.getPlace() + "|" + weather.getDate() + "|"
+                + weather.getTemperature() + "|" + weather.getDescription() + "|" + weather.isStale();
+        return "\"" + DigestUtils.md5DigestAsHex(content.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    // before any cache lookup: impossible or known-bad pincodes never cost I/O
+    private void rejectInvalidPincode(Integer pincode) {
+        if (this.pincodeValidator.isRejected(pincode)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Provided pincode is invalid.");
+        }
+    }
 }
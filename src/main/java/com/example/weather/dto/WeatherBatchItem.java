@@ -0,0 +1,24 @@
+package com.example.weather.dto;
+
+import java.time.LocalDate;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+public class WeatherBatchItem {
+
+    private Integer pincode;
+
+    @JsonFormat(pattern = "dd-MM-yyyy")
+    private LocalDate date;
+}
@@ -0,0 +1,35 @@
+package com.example.weather.dto;
+
+import java.time.LocalDate;
+
+import com.example.weather.entity.Weather;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class WeatherBatchResult {
+
+    private Integer pincode;
+    private LocalDate date;
+    private int status;
+    private Weather weather;
+    private String error;
+
+    public static WeatherBatchResult found(Integer pincode, LocalDate date, Weather weather) {
+        return new WeatherBatchResult(pincode, date, 200, weather, null);
+    }
+
+    public static WeatherBatchResult failed(Integer pincode, LocalDate date, int status, String error) {
+        return new WeatherBatchResult(pincode, date, status, null, error);
+    }
+}
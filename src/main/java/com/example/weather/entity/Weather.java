@@ -7,6 +7,10 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.Table;
+import javax.persistence.Transient;
+import javax.persistence.UniqueConstraint;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
 
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -15,7 +19,8 @@ import lombok.Setter;
 import lombok.ToString;
 
 @Entity
-@Table(name = "weather")
+@Table(name = "weather", uniqueConstraints = @UniqueConstraint(name = "uk_weather_pincode_date",
+        columnNames = { "pincode", "date" }))
 @Getter
 @Setter
 @AllArgsConstructor
@@ -36,4 +41,13 @@ public class Weather implements Serializable {
     private double temperature;
 
     private String  description;
+
+    // served from the last persisted date while OpenWeather is unavailable; never stored or cached
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    private boolean stale;
+
+    public Weather(Long id, Integer pincode, String place, LocalDate date, double temperature, String description) {
+        this(id, pincode, place, date, temperature, description, false);
+    }
 }
\ No newline at end of file
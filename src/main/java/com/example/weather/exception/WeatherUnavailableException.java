@@ -0,0 +1,10 @@
+package com.example.weather.exception;
+
+/**
+ * OpenWeather is unavailable and nothing persisted can stand in for the requested weather.
+ */
+public class WeatherUnavailableException extends WeatherNotFoundException {
+    public WeatherUnavailableException (String str)  {  
+        super(str);  
+    } 
+}
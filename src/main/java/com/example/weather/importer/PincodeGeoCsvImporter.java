@@ -0,0 +1,171 @@
+package com.example.weather.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.weather.repository.PincodeGeoUpsertRepo;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Streams a {@code pincode,latitude,longitude} CSV into {@code pincode_geo} with batched upserts.
+ * After every committed batch the number of consumed lines is written to a checkpoint file,
+ * so an interrupted import resumes where it stopped instead of starting over.
+ */
+@Slf4j
+public class PincodeGeoCsvImporter {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public PincodeGeoCsvImporter(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    public ImportResult importCsv(Path csv, Path checkpoint) throws IOException {
+        long resumeAfter = readCheckpoint(checkpoint);
+        if (resumeAfter > 0) {
+            log.info("Resuming pincode geo import of {} after line {}", csv, resumeAfter);
+        }
+
+        long started = System.nanoTime();
+        long line = 0;
+        long imported = 0;
+        long skipped = 0;
+        List<Object[]> batch = new ArrayList<>(this.batchSize);
+
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (line <= resumeAfter) {
+                    continue;
+                }
+                Object[] row = parse(text);
+                if (row == null) {
+                    // blank line, header or malformed row
+                    if (line > 1 && !text.isBlank()) {
+                        skipped++;
+                        log.debug("Skipping line {} of {}: {}", line, csv, text);
+                    }
+                    continue;
+                }
+                batch.add(row);
+                if (batch.size() == this.batchSize) {
+                    imported += flush(batch, checkpoint, line);
+                    logProgress(csv, line, imported, skipped, started);
+                }
+            }
+        }
+        imported += flush(batch, checkpoint, line);
+
+        Files.deleteIfExists(checkpoint);
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        log.info("Pincode geo import of {} finished: {} rows upserted, {} skipped in {} ms", csv, imported,
+                skipped, elapsedMillis);
+        return new ImportResult(imported, skipped, resumeAfter);
+    }
+
+    private int flush(List<Object[]> batch, Path checkpoint, long line) throws IOException {
+        int size = batch.size();
+        if (size > 0) {
+            this.transactionTemplate.executeWithoutResult(status -> this.jdbcTemplate.batchUpdate(PincodeGeoUpsertRepo.UPSERT_SQL, batch));
+            batch.clear();
+        }
+        writeCheckpoint(checkpoint, line);
+        return size;
+    }
+
+    private static void logProgress(Path csv, long line, long imported, long skipped, long started) {
+        long elapsedMillis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        log.info("Pincode geo import of {}: line {}, {} rows upserted, {} skipped, {} rows/s", csv, line, imported,
+                skipped, imported * 1000 / elapsedMillis);
+    }
+
+    // pincode,latitude,longitude; null for anything that isn't a usable row
+    static Object[] parse(String text) {
+        String[] fields = text.split(",", -1);
+        if (fields.length < 3) {
+            return null;
+        }
+        try {
+            int pincode = Integer.parseInt(unquote(fields[0]));
+            double latitude = Double.parseDouble(unquote(fields[1]));
+            double longitude = Double.parseDouble(unquote(fields[2]));
+            if (pincode <= 0 || Math.abs(latitude) > 90 || Math.abs(longitude) > 180) {
+                return null;
+            }
+            return new Object[] { pincode, latitude, longitude };
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String unquote(String field) {
+        String trimmed = field.trim();
+        if (trimmed.length() >= 2 && trimmed.startsWith("\"") && trimmed.endsWith("\"")) {
+            return trimmed.substring(1, trimmed.length() - 1).trim();
+        }
+        return trimmed;
+    }
+
+    private static long readCheckpoint(Path checkpoint) throws IOException {
+        if (!Files.exists(checkpoint)) {
+            return 0;
+        }
+        String content = Files.readString(checkpoint, StandardCharsets.UTF_8).trim();
+        try {
+            return content.isEmpty() ? 0 : Long.parseLong(content);
+        } catch (NumberFormatException e) {
+            throw new IOException("Unreadable import checkpoint " + checkpoint + ": " + content, e);
+        }
+    }
+
+    // write-then-rename so a crash never leaves a half-written checkpoint behind
+    private static void writeCheckpoint(Path checkpoint, long line) throws IOException {
+        Path parent = checkpoint.toAbsolutePath().getParent();
+        Path tmp = Files.createTempFile(parent, checkpoint.getFileName().toString(), ".tmp");
+        Files.writeString(tmp, Long.toString(line), StandardCharsets.UTF_8);
+        Files.move(tmp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static final class ImportResult {
+
+        private final long imported;
+        private final long skipped;
+        private final long resumedAfterLine;
+
+        ImportResult(long imported, long skipped, long resumedAfterLine) {
+            this.imported = imported;
+            this.skipped = skipped;
+            this.resumedAfterLine = resumedAfterLine;
+        }
+
+        public long getImported() {
+            return this.imported;
+        }
+
+        public long getSkipped() {
+            return this.skipped;
+        }
+
+        public long getResumedAfterLine() {
+            return this.resumedAfterLine;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.weather.importer;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.weather.cache.PincodeGeoIndex;
+
+/**
+ * Admin import, off unless {@code weather.import.pincode-geo.file} is set, e.g.
+ * {@code java -jar weather.jar --spring.main.web-application-type=none --weather.import.pincode-geo.file=pincodes.csv}.
+ */
+@Component
+@ConditionalOnProperty(name = "weather.import.pincode-geo.file")
+public class PincodeGeoImportRunner implements ApplicationRunner {
+
+    private final PincodeGeoCsvImporter importer;
+    private final Path csv;
+    private final Path checkpoint;
+    private final PincodeGeoIndex pincodeGeoIndex;
+
+    public PincodeGeoImportRunner(final JdbcTemplate jdbcTemplate, final PlatformTransactionManager transactionManager,
+            final PincodeGeoIndex pincodeGeoIndex,
+            @Value("${weather.import.pincode-geo.file}") final String file,
+            @Value("${weather.import.pincode-geo.batch-size:1000}") final int batchSize,
+            @Value("${weather.import.pincode-geo.checkpoint:}") final String checkpoint) {
+        this.importer = new PincodeGeoCsvImporter(jdbcTemplate, new TransactionTemplate(transactionManager), batchSize);
+        this.csv = Paths.get(file);
+        this.checkpoint = Paths.get(checkpoint.isEmpty() ? file + ".checkpoint" : checkpoint);
+        this.pincodeGeoIndex = pincodeGeoIndex;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        this.importer.importCsv(this.csv, this.checkpoint);
+        this.pincodeGeoIndex.reload();
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.weather.repository;
+
+import java.util.Collection;
+
+import com.example.weather.entity.PincodeGeo;
+
+/**
+ * Batched writes keyed on the pincode: existing rows are updated in place, without the
+ * select-then-insert {@code save} does for entities with assigned ids.
+ */
+public interface PincodeGeoUpsertRepo {
+
+    // also used by the CSV importer, which batches through plain JDBC
+    String UPSERT_SQL = "INSERT INTO pincode_geo (pincode, latitude, longitude) VALUES (?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE latitude = VALUES(latitude), longitude = VALUES(longitude)";
+
+    void upsertAll(Collection<PincodeGeo> pincodeGeos);
+}
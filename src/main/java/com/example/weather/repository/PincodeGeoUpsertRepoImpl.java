@@ -0,0 +1,32 @@
+package com.example.weather.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.weather.entity.PincodeGeo;
+
+class PincodeGeoUpsertRepoImpl implements PincodeGeoUpsertRepo {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    PincodeGeoUpsertRepoImpl(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional
+    public void upsertAll(Collection<PincodeGeo> pincodeGeos) {
+        if (pincodeGeos.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(pincodeGeos.size());
+        for (PincodeGeo pincodeGeo : pincodeGeos) {
+            rows.add(new Object[] { pincodeGeo.getPincode(), pincodeGeo.getLatitude(), pincodeGeo.getLongitude() });
+        }
+        this.jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+    }
+}
@@ -6,6 +6,6 @@ import org.springframework.stereotype.Repository;
 import com.example.weather.entity.PincodeGeo;
 
 @Repository
-public interface PincodeRepo extends JpaRepository<PincodeGeo,Integer> {
+public interface PincodeRepo extends JpaRepository<PincodeGeo,Integer>, PincodeGeoUpsertRepo {
 
 }
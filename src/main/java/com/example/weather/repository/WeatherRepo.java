@@ -1,6 +1,8 @@
 package com.example.weather.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -9,6 +11,15 @@ import org.springframework.stereotype.Repository;
 import com.example.weather.entity.Weather;
 
 @Repository
-public interface WeatherRepo extends JpaRepository<Weather,Long>{
+public interface WeatherRepo extends JpaRepository<Weather,Long>, WeatherUpsertRepo {
    Optional<Weather> findByPincodeAndDate(Integer pincode, LocalDate date);
+
+   // one pincode's days from..to, both inclusive; served by the (pincode, date) unique index
+   List<Weather> findByPincodeAndDateBetween(Integer pincode, LocalDate from, LocalDate to);
+
+   // stands in for any date while OpenWeather is unavailable
+   Optional<Weather> findFirstByPincodeOrderByDateDesc(Integer pincode);
+
+   // superset of the requested (pincode, date) pairs, callers filter to the exact pairs
+   List<Weather> findByPincodeInAndDateIn(Collection<Integer> pincodes, Collection<LocalDate> dates);
 }
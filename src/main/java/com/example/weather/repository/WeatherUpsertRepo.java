@@ -0,0 +1,16 @@
+package com.example.weather.repository;
+
+import java.util.Collection;
+
+import com.example.weather.entity.Weather;
+
+/**
+ * Idempotent writes keyed on the unique (pincode, date) index: a second write for the same
+ * pair updates the existing row instead of inserting a duplicate.
+ */
+public interface WeatherUpsertRepo {
+
+    void upsert(Weather weather);
+
+    void upsertAll(Collection<Weather> weathers);
+}
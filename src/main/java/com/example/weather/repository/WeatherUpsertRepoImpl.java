@@ -0,0 +1,48 @@
+package com.example.weather.repository;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.weather.entity.Weather;
+
+class WeatherUpsertRepoImpl implements WeatherUpsertRepo {
+
+    static final String UPSERT_SQL = "INSERT INTO weather (pincode, date, place, temperature, description) "
+            + "VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE place = VALUES(place), "
+            + "temperature = VALUES(temperature), description = VALUES(description)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    WeatherUpsertRepoImpl(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional
+    public void upsert(Weather weather) {
+        this.jdbcTemplate.update(UPSERT_SQL, row(weather));
+    }
+
+    @Override
+    @Transactional
+    public void upsertAll(Collection<Weather> weathers) {
+        if (weathers.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(weathers.size());
+        for (Weather weather : weathers) {
+            rows.add(row(weather));
+        }
+        this.jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+    }
+
+    private static Object[] row(Weather weather) {
+        return new Object[] { weather.getPincode(), Date.valueOf(weather.getDate()), weather.getPlace(),
+                weather.getTemperature(), weather.getDescription() };
+    }
+}
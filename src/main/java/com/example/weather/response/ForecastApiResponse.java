@@ -0,0 +1,20 @@
+package com.example.weather.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+public class ForecastApiResponse {
+
+    private List<ForecastItem> list;
+    private ForecastCity city;
+}
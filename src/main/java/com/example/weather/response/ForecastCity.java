@@ -0,0 +1,19 @@
+package com.example.weather.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+public class ForecastCity {
+
+    private String name;
+    // seconds east of UTC
+    private int timezone;
+}
@@ -0,0 +1,21 @@
+package com.example.weather.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+public class ForecastItem {
+
+    private long dt;
+    private Temperature main;
+    private List<Description> weather;
+}
@@ -0,0 +1,146 @@
+package com.example.weather.service;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+
+import com.example.weather.cache.PincodeGeoIndex;
+import com.example.weather.cache.TwoLevelCacheManager;
+import com.example.weather.cache.WeatherCacheKeys;
+import com.example.weather.client.AsyncOpenWeatherClient;
+import com.example.weather.client.UpstreamThrottledException;
+import com.example.weather.client.UpstreamUnavailableException;
+import com.example.weather.entity.PincodeGeo;
+import com.example.weather.entity.Weather;
+import com.example.weather.exception.PincodeNotFoundException;
+import com.example.weather.exception.WeatherNotFoundException;
+import com.example.weather.exception.WeatherUnavailableException;
+import com.example.weather.repository.PincodeRepo;
+import com.example.weather.repository.WeatherRepo;
+
+/**
+ * Same lookup as {@link WeatherService#getWeather} without holding the caller's thread:
+ * redis and MySQL calls run on a bounded I/O pool, OpenWeather calls are non-blocking.
+ * Futures fail with {@link PincodeNotFoundException} or {@link WeatherNotFoundException}
+ * ({@link WeatherUnavailableException} while the OpenWeather circuit is open).
+ */
+@Service
+public class AsyncWeatherService {
+
+    private final WeatherRepo weatherRepo;
+    private final PincodeRepo pincodeGeoRepo;
+    private final AsyncOpenWeatherClient weatherClient;
+    private final TwoLevelCacheManager cacheManager;
+    private final Executor blockingIoExecutor;
+    private final PincodeGeoIndex pincodeGeoIndex;
+    private final PincodeValidator pincodeValidator;
+    private final WriteBehindPersister writeBehindPersister;
+
+    // concurrent misses for the same key share one pending lookup
+    private final SingleFlight<String, Weather> weatherFlights = new SingleFlight<>();
+
+    public AsyncWeatherService(final WeatherRepo weatherRepo, final PincodeRepo pincodeRepo,
+            final AsyncOpenWeatherClient asyncOpenWeatherClient, final TwoLevelCacheManager cacheManager,
+            @Qualifier("blockingIoExecutor") final Executor blockingIoExecutor, final PincodeGeoIndex pincodeGeoIndex,
+            final PincodeValidator pincodeValidator, final WriteBehindPersister writeBehindPersister) {
+        this.weatherRepo = weatherRepo;
+        this.pincodeGeoRepo = pincodeRepo;
+        this.weatherClient = asyncOpenWeatherClient;
+        this.cacheManager = cacheManager;
+        this.blockingIoExecutor = blockingIoExecutor;
+        this.pincodeGeoIndex = pincodeGeoIndex;
+        this.pincodeValidator = pincodeValidator;
+        this.writeBehindPersister = writeBehindPersister;
+    }
+
+    public CompletableFuture<Weather> getWeather(Integer pincode, LocalDate date) {
+        if (this.pincodeValidator.isRejected(pincode)) {
+            return CompletableFuture.failedFuture(new PincodeNotFoundException("Provided pincode is invalid."));
+        }
+        String key = WeatherCacheKeys.of(pincode, date);
+        Cache cache = this.cacheManager.getCache(WeatherCacheKeys.CACHE_NAME);
+
+        return CompletableFuture.supplyAsync(() -> cache.get(key, Weather.class), this.blockingIoExecutor)
+                .thenCompose(cached -> {
+                    if (cached != null) {
+                        return CompletableFuture.completedFuture(cached);
+                    }
+                    return this.weatherFlights.submit(key, () -> loadWeather(pincode, date)
+                            .thenApplyAsync(weather -> {
+                                cache.put(key, weather);
+                                return weather;
+                            }, this.blockingIoExecutor));
+                });
+    }
+
+    private CompletableFuture<Weather> loadWeather(Integer pincode, LocalDate date) {
+        return CompletableFuture
+                .supplyAsync(() -> this.weatherRepo.findByPincodeAndDate(pincode, date), this.blockingIoExecutor)
+                .thenCompose(persisted -> {
+                    if (persisted.isPresent()) {
+                        return CompletableFuture.completedFuture(persisted.get());
+                    }
+                    double[] location = new double[2];
+                    if (this.pincodeGeoIndex.find(pincode, location)) {
+                        return fetchWeather(pincode, location[0], location[1], date);
+                    }
+                    return loadPincodeGeo(pincode).thenCompose(pincodeGeo -> fetchWeather(pincode,
+                            pincodeGeo.getLatitude(), pincodeGeo.getLongitude(), date));
+                });
+    }
+
+    private CompletableFuture<PincodeGeo> loadPincodeGeo(Integer pincode) {
+        return CompletableFuture
+                .supplyAsync(() -> this.pincodeGeoRepo.findById(pincode), this.blockingIoExecutor)
+                .thenCompose(persisted -> {
+                    if (persisted.isPresent()) {
+                        this.pincodeGeoIndex.add(persisted.get());
+                        return CompletableFuture.completedFuture(persisted.get());
+                    }
+                    return this.weatherClient.fetchPincodeGeo(pincode)
+                            .exceptionally(e -> {
+                                this.pincodeValidator.recordFailure(pincode, e);
+                                throw failure(e, new PincodeNotFoundException("Provided pincode is invalid."));
+                            })
+                            .thenApplyAsync(pincodeGeo -> {
+                                // persist
+                                this.writeBehindPersister.savePincodeGeo(pincodeGeo);
+                                this.pincodeGeoIndex.add(pincodeGeo);
+                                return pincodeGeo;
+                            }, this.blockingIoExecutor);
+                });
+    }
+
+    private CompletableFuture<Weather> fetchWeather(Integer pincode, double latitude, double longitude,
+            LocalDate date) {
+        return this.weatherClient.fetchWeather(latitude, longitude, date)
+                .exceptionally(e -> {
+                    throw failure(e,
+                            new WeatherNotFoundException("Weather couldn't be fetched for the provided pincode or date."));
+                })
+                .thenApplyAsync(weather -> {
+                    // persist
+                    weather.setPincode(pincode);
+                    this.writeBehindPersister.saveWeather(weather);
+                    return weather;
+                }, this.blockingIoExecutor);
+    }
+
+    // upstream errors become the domain exception, anything else propagates unchanged
+    private static CompletionException failure(Throwable e, Exception domainException) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof UpstreamUnavailableException || cause instanceof UpstreamThrottledException) {
+            return new CompletionException(new WeatherUnavailableException("Weather service is temporarily unavailable."));
+        }
+        if (cause instanceof RestClientException) {
+            return new CompletionException(domainException);
+        }
+        return e instanceof CompletionException ? (CompletionException) e : new CompletionException(e);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.weather.service;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.example.weather.cache.PincodeGeoIndex;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Rejects pincodes that cannot resolve before any cache, DB or upstream call: anything that isn't a
+ * 6-digit Indian pincode, and pincodes OpenWeather recently reported as unknown (negative cache,
+ * own TTL). With {@code weather.geo.reject-unknown} every pincode missing from a loaded
+ * {@link PincodeGeoIndex} is rejected too, for deployments that imported the full dataset.
+ */
+@Component
+public class PincodeValidator {
+
+    static final int MIN_PINCODE = 100000;
+    static final int MAX_PINCODE = 999999;
+
+    private final PincodeGeoIndex pincodeGeoIndex;
+    private final Cache<Integer, Boolean> invalidPincodes;
+    private final boolean rejectUnknown;
+
+    public PincodeValidator(final PincodeGeoIndex pincodeGeoIndex,
+            @Value("${weather.geo.negative-cache.ttl}") final Duration negativeTtl,
+            @Value("${weather.geo.negative-cache.max-size}") final long negativeMaxSize,
+            @Value("${weather.geo.reject-unknown}") final boolean rejectUnknown) {
+        this.pincodeGeoIndex = pincodeGeoIndex;
+        this.invalidPincodes = Caffeine.newBuilder()
+                .maximumSize(negativeMaxSize)
+                .expireAfterWrite(negativeTtl)
+                .build();
+        this.rejectUnknown = rejectUnknown;
+    }
+
+    public boolean isRejected(Integer pincode) {
+        if (pincode == null || pincode < MIN_PINCODE || pincode > MAX_PINCODE) {
+            return true;
+        }
+        if (this.pincodeGeoIndex.contains(pincode)) {
+            return false;
+        }
+        if (this.rejectUnknown && this.pincodeGeoIndex.size() > 0) {
+            return true;
+        }
+        return this.invalidPincodes.getIfPresent(pincode) != null;
+    }
+
+    // only a definitive "no such zip" is remembered, timeouts and 5xx are retried on the next request
+    public void recordFailure(Integer pincode, Throwable failure) {
+        if (isUnknownPincodeResponse(failure)) {
+            this.invalidPincodes.put(pincode, Boolean.TRUE);
+        }
+    }
+
+    static boolean isUnknownPincodeResponse(Throwable failure) {
+        for (Throwable e = failure; e != null; e = e.getCause()) {
+            if (e instanceof HttpClientErrorException) {
+                return isUnknownPincodeStatus(((HttpClientErrorException) e).getRawStatusCode());
+            }
+            if (e instanceof WebClientResponseException) {
+                return isUnknownPincodeStatus(((WebClientResponseException) e).getRawStatusCode());
+            }
+        }
+        return false;
+    }
+
+    private static boolean isUnknownPincodeStatus(int status) {
+        return status == HttpStatus.NOT_FOUND.value() || status == HttpStatus.BAD_REQUEST.value();
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.weather.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key: the first caller runs the loader,
+ * every caller that arrives while it is running waits for and shares its outcome.
+ * {@link #submit} does the same for loaders that return a future, without blocking.
+ */
+public class SingleFlight<K, V> {
+
+    @FunctionalInterface
+    public interface Loader<V, E extends Exception> {
+        V load() throws E;
+    }
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    public <E extends Exception> V execute(K key, Loader<V, E> loader) throws E {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> leader = this.inFlight.putIfAbsent(key, call);
+        if (leader != null) {
+            return await(leader);
+        }
+
+        try {
+            V value = loader.load();
+            call.complete(value);
+            return value;
+        } catch (Throwable e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            this.inFlight.remove(key, call);
+        }
+    }
+
+    public CompletableFuture<V> submit(K key, Supplier<CompletableFuture<V>> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> leader = this.inFlight.putIfAbsent(key, call);
+        if (leader != null) {
+            return leader;
+        }
+
+        CompletableFuture<V> load;
+        try {
+            load = loader.get();
+        } catch (Throwable e) {
+            load = CompletableFuture.failedFuture(e);
+        }
+        load.whenComplete((value, e) -> {
+            this.inFlight.remove(key, call);
+            if (e != null) {
+                call.completeExceptionally(e);
+            } else {
+                call.complete(value);
+            }
+        });
+        return call;
+    }
+
+    public int inFlightCount() {
+        return this.inFlight.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <E extends Exception> V await(CompletableFuture<V> leader) throws E {
+        try {
+            return leader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            // the leader ran the same loader, so its checked exception is of type E
+            throw (E) cause;
+        }
+    }
+}
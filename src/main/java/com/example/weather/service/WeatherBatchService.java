@@ -0,0 +1,338 @@
+package com.example.weather.service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+
+import com.example.weather.cache.PincodeGeoIndex;
+import com.example.weather.cache.WeatherCache;
+import com.example.weather.cache.WeatherCacheKeys;
+import com.example.weather.client.OpenWeatherClient;
+import com.example.weather.client.UpstreamThrottledException;
+import com.example.weather.client.UpstreamUnavailableException;
+import com.example.weather.dto.WeatherBatchItem;
+import com.example.weather.dto.WeatherBatchResult;
+import com.example.weather.entity.PincodeGeo;
+import com.example.weather.entity.Weather;
+import com.example.weather.repository.PincodeRepo;
+import com.example.weather.repository.WeatherRepo;
+
+/**
+ * Resolves many (pincode, date) pairs at once: one cache multi-get, one set-based query per table,
+ * then a bounded parallel fan-out to OpenWeather for whatever is still missing. Date ranges for one
+ * pincode take missing days from today on from a single forecast call first.
+ */
+@Service
+public class WeatherBatchService {
+
+    static final String PINCODE_NOT_FOUND = "Provided pincode is invalid.";
+    static final String WEATHER_NOT_FOUND = "Weather couldn't be fetched for the provided pincode or date.";
+    static final String INTERNAL_ERROR = "Weather lookup failed unexpectedly.";
+    static final String UNAVAILABLE = "Weather service is temporarily unavailable.";
+
+    private final WeatherRepo weatherRepo;
+    private final PincodeRepo pincodeGeoRepo;
+    private final OpenWeatherClient weatherClient;
+    private final WeatherCache weatherCache;
+    private final Executor upstreamExecutor;
+    private final int maxBatchSize;
+    private final PincodeGeoIndex pincodeGeoIndex;
+    private final PincodeValidator pincodeValidator;
+    private final WriteBehindPersister writeBehindPersister;
+    private final ZoneId zone;
+
+    public WeatherBatchService(final WeatherRepo weatherRepo, final PincodeRepo pincodeRepo,
+            final OpenWeatherClient openWeatherClient, final WeatherCache weatherCache,
+            @Qualifier("upstreamExecutor") final Executor upstreamExecutor,
+            @Value("${weather.batch.max-size}") final int maxBatchSize, final PincodeGeoIndex pincodeGeoIndex,
+            final PincodeValidator pincodeValidator, final WriteBehindPersister writeBehindPersister,
+            @Value("${weather.cache.zone}") final ZoneId zone) {
+        this.weatherRepo = weatherRepo;
+        this.pincodeGeoRepo = pincodeRepo;
+        this.weatherClient = openWeatherClient;
+        this.weatherCache = weatherCache;
+        this.upstreamExecutor = upstreamExecutor;
+        this.maxBatchSize = maxBatchSize;
+        this.pincodeGeoIndex = pincodeGeoIndex;
+        this.pincodeValidator = pincodeValidator;
+        this.writeBehindPersister = writeBehindPersister;
+        this.zone = zone;
+    }
+
+    public List<WeatherBatchResult> getWeather(List<WeatherBatchItem> items) {
+        if (items.size() > this.maxBatchSize) {
+            throw new IllegalArgumentException("A batch can hold at most " + this.maxBatchSize + " items.");
+        }
+
+        Map<String, WeatherBatchItem> pending = new LinkedHashMap<>();
+        Map<String, WeatherBatchResult> results = new HashMap<>();
+        for (WeatherBatchItem item : items) {
+            if (item.getPincode() == null || item.getDate() == null) {
+                throw new IllegalArgumentException("Every batch item needs a pincode and a date.");
+            }
+            String key = WeatherCacheKeys.of(item.getPincode(), item.getDate());
+            if (this.pincodeValidator.isRejected(item.getPincode())) {
+                results.put(key, WeatherBatchResult.failed(item.getPincode(), item.getDate(), 404, PINCODE_NOT_FOUND));
+            } else {
+                pending.putIfAbsent(key, item);
+            }
+        }
+
+        // cached
+        this.weatherCache.getAll(pending.keySet()).forEach((key, weather) -> {
+            WeatherBatchItem item = pending.remove(key);
+            results.put(key, WeatherBatchResult.found(item.getPincode(), item.getDate(), weather));
+        });
+
+        // persisted
+        if (!pending.isEmpty()) {
+            Map<String, Weather> persisted = findPersisted(pending.values());
+            persisted.forEach((key, weather) -> {
+                WeatherBatchItem item = pending.remove(key);
+                results.put(key, WeatherBatchResult.found(item.getPincode(), item.getDate(), weather));
+            });
+            this.weatherCache.putAll(persisted);
+        }
+
+        // network calls
+        if (!pending.isEmpty()) {
+            Map<String, Weather> fetched = fetchMissing(pending, results);
+            this.writeBehindPersister.saveWeathers(fetched.values());
+            this.weatherCache.putAll(fetched);
+        }
+
+        List<WeatherBatchResult> ordered = new ArrayList<>(items.size());
+        for (WeatherBatchItem item : items) {
+            ordered.add(results.get(WeatherCacheKeys.of(item.getPincode(), item.getDate())));
+        }
+        return ordered;
+    }
+
+    /** One result per day from {@code from} to {@code to}, both inclusive, in date order. */
+    public List<WeatherBatchResult> getRange(Integer pincode, LocalDate from, LocalDate to) {
+        if (pincode == null || from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("A range needs a pincode and a from date no later than its to date.");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= this.maxBatchSize) {
+            throw new IllegalArgumentException("A range can span at most " + this.maxBatchSize + " days.");
+        }
+
+        List<LocalDate> dates = from.datesUntil(to.plusDays(1)).collect(Collectors.toList());
+        Map<LocalDate, WeatherBatchResult> results = new HashMap<>();
+        if (this.pincodeValidator.isRejected(pincode)) {
+            dates.forEach(date -> results.put(date, WeatherBatchResult.failed(pincode, date, 404, PINCODE_NOT_FOUND)));
+            return inOrder(dates, results);
+        }
+
+        // cached
+        Set<LocalDate> missing = new TreeSet<>(dates);
+        this.weatherCache.getDays(pincode, dates).forEach((date, weather) -> {
+            missing.remove(date);
+            results.put(date, WeatherBatchResult.found(pincode, date, weather));
+        });
+
+        // persisted
+        if (!missing.isEmpty()) {
+            List<Weather> persisted = new ArrayList<>();
+            for (Weather weather : this.weatherRepo.findByPincodeAndDateBetween(pincode, from, to)) {
+                if (missing.remove(weather.getDate())) {
+                    persisted.add(weather);
+                    results.put(weather.getDate(), WeatherBatchResult.found(pincode, weather.getDate(), weather));
+                }
+            }
+            this.weatherCache.putAll(persisted);
+        }
+
+        // network calls: the forecast for today on, one call per day for the rest
+        if (!missing.isEmpty()) {
+            Map<Integer, Integer> geoFailures = new HashMap<>();
+            PincodeGeo location = resolveLocations(Set.of(pincode), geoFailures).get(pincode);
+            if (location == null) {
+                int status = geoFailures.getOrDefault(pincode, 404);
+                missing.forEach(date -> results.put(date,
+                        WeatherBatchResult.failed(pincode, date, status, geoFailureMessage(status))));
+                return inOrder(dates, results);
+            }
+            List<Weather> fetched = new ArrayList<>(fetchForecast(pincode, location, missing, results));
+            if (!missing.isEmpty()) {
+                Map<String, WeatherBatchItem> pending = new LinkedHashMap<>();
+                missing.forEach(date -> pending.put(WeatherCacheKeys.of(pincode, date), new WeatherBatchItem(pincode, date)));
+                Map<String, WeatherBatchResult> dayResults = new HashMap<>();
+                fetched.addAll(fetchMissing(pending, dayResults).values());
+                dayResults.values().forEach(result -> results.put(result.getDate(), result));
+            }
+            this.writeBehindPersister.saveWeathers(fetched);
+            this.weatherCache.putAll(fetched);
+        }
+        return inOrder(dates, results);
+    }
+
+    // only the missing days are taken from the forecast and removed from missing; persisted or cached
+    // weather for the other days isn't replaced by a forecast
+    private List<Weather> fetchForecast(Integer pincode, PincodeGeo location, Set<LocalDate> missing,
+            Map<LocalDate, WeatherBatchResult> results) {
+        LocalDate today = LocalDate.now(this.zone);
+        if (missing.stream().allMatch(date -> date.isBefore(today))) {
+            return List.of();
+        }
+
+        List<Weather> forecast;
+        try {
+            forecast = this.weatherClient.fetchForecast(location.getLatitude(), location.getLongitude());
+        } catch (RestClientException e) {
+            // the per-day fallback covers these days too
+            return List.of();
+        }
+        List<Weather> covered = new ArrayList<>();
+        for (Weather weather : forecast) {
+            if (missing.remove(weather.getDate())) {
+                weather.setPincode(pincode);
+                covered.add(weather);
+                results.put(weather.getDate(), WeatherBatchResult.found(pincode, weather.getDate(), weather));
+            }
+        }
+        return covered;
+    }
+
+    // open circuit or no permit/key: the call wasn't made, so it says nothing about the pincode or date
+    private static boolean isUnavailable(Throwable e) {
+        return e instanceof UpstreamUnavailableException || e instanceof UpstreamThrottledException;
+    }
+
+    private static String geoFailureMessage(int status) {
+        return status == 404 ? PINCODE_NOT_FOUND : status == 503 ? UNAVAILABLE : INTERNAL_ERROR;
+    }
+
+    private static List<WeatherBatchResult> inOrder(List<LocalDate> dates, Map<LocalDate, WeatherBatchResult> results) {
+        List<WeatherBatchResult> ordered = new ArrayList<>(dates.size());
+        for (LocalDate date : dates) {
+            ordered.add(results.get(date));
+        }
+        return ordered;
+    }
+
+    private Map<String, Weather> findPersisted(Iterable<WeatherBatchItem> items) {
+        Set<Integer> pincodes = new HashSet<>();
+        Set<LocalDate> dates = new HashSet<>();
+        Set<String> wanted = new HashSet<>();
+        for (WeatherBatchItem item : items) {
+            pincodes.add(item.getPincode());
+            dates.add(item.getDate());
+            wanted.add(WeatherCacheKeys.of(item.getPincode(), item.getDate()));
+        }
+
+        Map<String, Weather> persisted = new HashMap<>();
+        for (Weather weather : this.weatherRepo.findByPincodeInAndDateIn(pincodes, dates)) {
+            String key = WeatherCacheKeys.of(weather.getPincode(), weather.getDate());
+            if (wanted.contains(key)) {
+                persisted.putIfAbsent(key, weather);
+            }
+        }
+        return persisted;
+    }
+
+    private Map<String, Weather> fetchMissing(Map<String, WeatherBatchItem> pending,
+            Map<String, WeatherBatchResult> results) {
+        Set<Integer> pincodes = pending.values().stream()
+                .map(WeatherBatchItem::getPincode)
+                .collect(Collectors.toSet());
+        Map<Integer, Integer> geoFailures = new HashMap<>();
+        Map<Integer, PincodeGeo> locations = resolveLocations(pincodes, geoFailures);
+
+        Map<String, CompletableFuture<Weather>> calls = new LinkedHashMap<>();
+        pending.forEach((key, item) -> {
+            PincodeGeo location = locations.get(item.getPincode());
+            if (location == null) {
+                int status = geoFailures.getOrDefault(item.getPincode(), 404);
+                results.put(key, WeatherBatchResult.failed(item.getPincode(), item.getDate(), status,
+                        geoFailureMessage(status)));
+                return;
+            }
+            calls.put(key, CompletableFuture.supplyAsync(() -> {
+                Weather weather = this.weatherClient.fetchWeather(location.getLatitude(), location.getLongitude(),
+                        item.getDate());
+                weather.setPincode(item.getPincode());
+                return weather;
+            }, this.upstreamExecutor));
+        });
+
+        Map<String, Weather> fetched = new HashMap<>();
+        calls.forEach((key, call) -> {
+            WeatherBatchItem item = pending.get(key);
+            try {
+                Weather weather = call.join();
+                fetched.put(key, weather);
+                results.put(key, WeatherBatchResult.found(item.getPincode(), item.getDate(), weather));
+            } catch (CompletionException e) {
+                results.put(key, isUnavailable(e.getCause())
+                        ? WeatherBatchResult.failed(item.getPincode(), item.getDate(), 503, UNAVAILABLE)
+                        : e.getCause() instanceof RestClientException
+                        ? WeatherBatchResult.failed(item.getPincode(), item.getDate(), 404, WEATHER_NOT_FOUND)
+                        : WeatherBatchResult.failed(item.getPincode(), item.getDate(), 500, INTERNAL_ERROR));
+            }
+        });
+        return fetched;
+    }
+
+    private Map<Integer, PincodeGeo> resolveLocations(Set<Integer> pincodes, Map<Integer, Integer> failures) {
+        Map<Integer, PincodeGeo> locations = new HashMap<>();
+        Set<Integer> unindexed = new HashSet<>();
+        double[] coordinates = new double[2];
+        for (Integer pincode : pincodes) {
+            if (this.pincodeGeoIndex.find(pincode, coordinates)) {
+                locations.put(pincode, new PincodeGeo(pincode, coordinates[0], coordinates[1]));
+            } else {
+                unindexed.add(pincode);
+            }
+        }
+        if (!unindexed.isEmpty()) {
+            for (PincodeGeo pincodeGeo : this.pincodeGeoRepo.findAllById(unindexed)) {
+                locations.put(pincodeGeo.getPincode(), pincodeGeo);
+                this.pincodeGeoIndex.add(pincodeGeo);
+            }
+        }
+
+        Map<Integer, CompletableFuture<PincodeGeo>> calls = new HashMap<>();
+        for (Integer pincode : pincodes) {
+            if (!locations.containsKey(pincode)) {
+                calls.put(pincode, CompletableFuture.supplyAsync(() -> this.weatherClient.fetchPincodeGeo(pincode),
+                        this.upstreamExecutor));
+            }
+        }
+
+        List<PincodeGeo> fetched = new ArrayList<>();
+        calls.forEach((pincode, call) -> {
+            try {
+                fetched.add(call.join());
+            } catch (CompletionException e) {
+                // reported per item
+                this.pincodeValidator.recordFailure(pincode, e);
+                failures.put(pincode, isUnavailable(e.getCause()) ? 503
+                        : e.getCause() instanceof RestClientException ? 404 : 500);
+            }
+        });
+        this.writeBehindPersister.savePincodeGeos(fetched);
+        fetched.forEach(pincodeGeo -> {
+            locations.put(pincodeGeo.getPincode(), pincodeGeo);
+            this.pincodeGeoIndex.add(pincodeGeo);
+        });
+        return locations;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.weather.service;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times the stages of a weather lookup under {@code weather.lookup.stage}, tagged with the stage
+ * and its outcome: {@code found}/{@code empty} for lookups returning an {@link Optional},
+ * {@code success} otherwise, {@code error} when the stage threw.
+ */
+@Component
+public class WeatherLookupMetrics {
+
+    static final String STAGE_TIMER = "weather.lookup.stage";
+
+    @FunctionalInterface
+    public interface Stage<V, E extends Exception> {
+        V call() throws E;
+    }
+
+    private final MeterRegistry meterRegistry;
+
+    public WeatherLookupMetrics(final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <V, E extends Exception> V time(String stage, Stage<V, E> call) throws E {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            V value = call.call();
+            outcome = value instanceof Optional ? (((Optional<?>) value).isPresent() ? "found" : "empty") : "success";
+            return value;
+        } finally {
+            Timer.builder(STAGE_TIMER)
+                    .description("Time spent in one stage of a weather lookup")
+                    .tag("stage", stage)
+                    .tag("outcome", outcome)
+                    .register(this.meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void time(String stage, Runnable call) {
+        time(stage, () -> {
+            call.run();
+            return null;
+        });
+    }
+}
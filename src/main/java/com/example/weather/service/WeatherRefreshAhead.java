@@ -0,0 +1,138 @@
+package com.example.weather.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+
+import com.example.weather.cache.HotKeyTracker;
+import com.example.weather.cache.PincodeGeoIndex;
+import com.example.weather.cache.TwoLevelCache;
+import com.example.weather.cache.TwoLevelCacheManager;
+import com.example.weather.cache.WeatherCacheKeys;
+import com.example.weather.client.OpenWeatherClient;
+import com.example.weather.entity.PincodeGeo;
+import com.example.weather.entity.Weather;
+import com.example.weather.repository.PincodeRepo;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Re-fetches the hottest {@code weather} entries shortly before their remote TTL runs out, so
+ * frequently requested keys are rewritten instead of expiring under load. Each run spends at most
+ * {@code weather.refresh-ahead.max-per-run} OpenWeather calls.
+ */
+@Slf4j
+@Component
+public class WeatherRefreshAhead {
+
+    private final TwoLevelCacheManager cacheManager;
+    private final HotKeyTracker hotKeyTracker;
+    private final OpenWeatherClient weatherClient;
+    private final PincodeGeoIndex pincodeGeoIndex;
+    private final PincodeRepo pincodeGeoRepo;
+    private final WriteBehindPersister writeBehindPersister;
+    private final Executor upstreamExecutor;
+    private final int topK;
+    private final long minScore;
+    private final Duration window;
+    private final int maxPerRun;
+
+    public WeatherRefreshAhead(final TwoLevelCacheManager cacheManager, final HotKeyTracker weatherHotKeyTracker,
+            final OpenWeatherClient openWeatherClient, final PincodeGeoIndex pincodeGeoIndex,
+            final PincodeRepo pincodeRepo, final WriteBehindPersister writeBehindPersister,
+            @Qualifier("upstreamExecutor") final Executor upstreamExecutor,
+            @Value("${weather.refresh-ahead.top-k}") final int topK,
+            @Value("${weather.refresh-ahead.min-score}") final long minScore,
+            @Value("${weather.refresh-ahead.window}") final Duration window,
+            @Value("${weather.refresh-ahead.max-per-run}") final int maxPerRun) {
+        this.cacheManager = cacheManager;
+        this.hotKeyTracker = weatherHotKeyTracker;
+        this.weatherClient = openWeatherClient;
+        this.pincodeGeoIndex = pincodeGeoIndex;
+        this.pincodeGeoRepo = pincodeRepo;
+        this.writeBehindPersister = writeBehindPersister;
+        this.upstreamExecutor = upstreamExecutor;
+        this.topK = topK;
+        this.minScore = minScore;
+        this.window = window;
+        this.maxPerRun = maxPerRun;
+    }
+
+    @Scheduled(initialDelayString = "${weather.refresh-ahead.interval}",
+            fixedDelayString = "${weather.refresh-ahead.interval}")
+    public int refresh() {
+        List<String> hottest = this.hotKeyTracker.hottest(this.topK, this.minScore);
+        this.hotKeyTracker.decay();
+        if (hottest.isEmpty() || this.maxPerRun <= 0) {
+            return 0;
+        }
+
+        TwoLevelCache cache = this.cacheManager.getCache(WeatherCacheKeys.CACHE_NAME);
+        Map<String, Duration> remainingTtls = cache.getRemainingTtls(hottest);
+
+        // still cached but about to expire; keys that already expired are reloaded by the next miss
+        List<String> due = new ArrayList<>();
+        for (String key : hottest) {
+            Duration remaining = remainingTtls.get(key);
+            if (remaining != null && !remaining.isZero() && remaining.compareTo(this.window) <= 0) {
+                due.add(key);
+                if (due.size() == this.maxPerRun) {
+                    break;
+                }
+            }
+        }
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<Boolean>> refreshes = new ArrayList<>(due.size());
+        for (String key : due) {
+            refreshes.add(CompletableFuture.supplyAsync(() -> refreshKey(cache, key), this.upstreamExecutor));
+        }
+        int refreshed = 0;
+        for (CompletableFuture<Boolean> refresh : refreshes) {
+            if (refresh.join()) {
+                refreshed++;
+            }
+        }
+        log.debug("Refreshed {} of {} hot weather keys close to expiry", refreshed, due.size());
+        return refreshed;
+    }
+
+    private boolean refreshKey(TwoLevelCache cache, String key) {
+        Integer pincode = WeatherCacheKeys.pincodeOf(key);
+        LocalDate date = WeatherCacheKeys.dateOf(key);
+
+        Optional<PincodeGeo> location = this.pincodeGeoIndex.find(pincode);
+        if (location.isEmpty()) {
+            location = this.pincodeGeoRepo.findById(pincode);
+        }
+        if (location.isEmpty()) {
+            return false;
+        }
+
+        try {
+            Weather weather = this.weatherClient.fetchWeather(location.get().getLatitude(),
+                    location.get().getLongitude(), date);
+            weather.setPincode(pincode);
+            this.writeBehindPersister.saveWeather(weather);
+            cache.put(key, weather);
+            return true;
+        } catch (RestClientException e) {
+            // the entry expires normally and the next miss retries
+            log.debug("Refresh-ahead of {} failed", key, e);
+            return false;
+        }
+    }
+}
@@ -5,11 +5,16 @@ import java.util.Optional;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClientException;
+import com.example.weather.cache.PincodeGeoIndex;
+import com.example.weather.cache.WeatherCacheKeys;
 import com.example.weather.client.OpenWeatherClient;
+import com.example.weather.client.UpstreamThrottledException;
+import com.example.weather.client.UpstreamUnavailableException;
 import com.example.weather.entity.PincodeGeo;
 import com.example.weather.entity.Weather;
 import com.example.weather.exception.PincodeNotFoundException;
 import com.example.weather.exception.WeatherNotFoundException;
+import com.example.weather.exception.WeatherUnavailableException;
 import com.example.weather.repository.PincodeRepo;
 import com.example.weather.repository.WeatherRepo;
 
@@ -19,56 +24,128 @@ public class WeatherService {
     private final WeatherRepo weatherRepo;
     private final PincodeRepo pincodeGeoRepo;
     private final OpenWeatherClient weatherClient;
+    private final PincodeGeoIndex pincodeGeoIndex;
+    private final PincodeValidator pincodeValidator;
+    private final WriteBehindPersister writeBehindPersister;
+    private final WeatherLookupMetrics lookupMetrics;
+
+    // concurrent cache misses for the same key share one loader
+    private final SingleFlight<String, Weather> weatherFlights = new SingleFlight<>();
+    private final SingleFlight<Integer, PincodeGeo> pincodeGeoFlights = new SingleFlight<>();
 
     public WeatherService(final WeatherRepo weatherRepo, final PincodeRepo pincodeRepo,
-            final OpenWeatherClient openWeatherClient) {
+            final OpenWeatherClient openWeatherClient, final PincodeGeoIndex pincodeGeoIndex,
+            final PincodeValidator pincodeValidator, final WriteBehindPersister writeBehindPersister,
+            final WeatherLookupMetrics lookupMetrics) {
         this.weatherRepo = weatherRepo;
         this.pincodeGeoRepo = pincodeRepo;
         this.weatherClient = openWeatherClient;
+        this.pincodeGeoIndex = pincodeGeoIndex;
+        this.pincodeValidator = pincodeValidator;
+        this.writeBehindPersister = writeBehindPersister;
+        this.lookupMetrics = lookupMetrics;
     }
 
-    @Cacheable(value = "weather", key = "#pincode+ '_' + #date")
+    // stale stand-ins are not cached, the next lookup after recovery fetches the real date
+    @Cacheable(value = "weather", keyGenerator = "weatherKeyGenerator", unless = "#result.stale")
     public Weather getWeather(Integer pincode, LocalDate date) throws PincodeNotFoundException, WeatherNotFoundException {
+        if (this.pincodeValidator.isRejected(pincode)) {
+            throw new PincodeNotFoundException("Provided pincode is invalid.");
+        }
+        try {
+            return this.weatherFlights.execute(WeatherCacheKeys.of(pincode, date), () -> this.loadWeather(pincode, date));
+        } catch (PincodeNotFoundException | WeatherNotFoundException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            // loadWeather declares no other checked exception
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Weather loadWeather(Integer pincode, LocalDate date) throws PincodeNotFoundException, WeatherNotFoundException {
 
-        Optional<Weather> optionalWeatherInfo = this.weatherRepo.findByPincodeAndDate(pincode, date);
+        Optional<Weather> optionalWeatherInfo = this.lookupMetrics.time("find-weather",
+                () -> this.weatherRepo.findByPincodeAndDate(pincode, date));
         if (optionalWeatherInfo.isPresent()) {
             // persisted
             return optionalWeatherInfo.get();
         }
 
-        double latitude;
-        double longitude;
+        try {
+            return fetchWeather(pincode, date);
+        } catch (UpstreamUnavailableException e) {
+            return staleWeather(pincode);
+        } catch (UpstreamThrottledException e) {
+            // never sent, says nothing about the pincode or date
+            throw new WeatherUnavailableException("Weather service is temporarily unavailable.");
+        }
+    }
 
-        Optional<PincodeGeo> optionalPincodeLocation = this.pincodeGeoRepo.findById(pincode);
+    private Weather fetchWeather(Integer pincode, LocalDate date) throws PincodeNotFoundException, WeatherNotFoundException {
 
-        if (optionalPincodeLocation.isPresent()) {
-            latitude = optionalPincodeLocation.get().getLatitude();
-            longitude = optionalPincodeLocation.get().getLongitude();
-        } else {
-            try {
-                // network call
-                PincodeGeo pincodeGeo = weatherClient.fetchPincodeGeo(pincode);
-                latitude = pincodeGeo.getLatitude();
-                longitude = pincodeGeo.getLongitude();
-
-                // persist
-                this.pincodeGeoRepo.save(pincodeGeo);
-            } catch (RestClientException e) {
-                throw new PincodeNotFoundException("Provided pincode is invalid.");
-            }
+        double[] location = new double[2];
+        if (!this.pincodeGeoIndex.find(pincode, location)) {
+            PincodeGeo pincodeGeo = this.pincodeGeoFlights.execute(pincode, () -> this.loadPincodeGeo(pincode));
+            location[0] = pincodeGeo.getLatitude();
+            location[1] = pincodeGeo.getLongitude();
         }
+        double latitude = location[0];
+        double longitude = location[1];
 
         try {
-            Weather weather = this.weatherClient.fetchWeather(latitude, longitude, date);
+            Weather weather = this.lookupMetrics.time("fetch-weather",
+                    () -> this.weatherClient.fetchWeather(latitude, longitude, date));
             
             // persist
             weather.setPincode(pincode);
-            this.weatherRepo.save(weather);
+            this.lookupMetrics.time("save-weather", () -> this.writeBehindPersister.saveWeather(weather));
 
             return weather;
-        }  catch (RestClientException e) {
+        } catch (UpstreamUnavailableException | UpstreamThrottledException e) {
+            throw e;
+        } catch (RestClientException e) {
             throw new WeatherNotFoundException("Weather couldn't be fetched for the provided pincode or date.");
         }
     }
 
+    // circuit open: the latest persisted weather for the pincode, or fail fast
+    private Weather staleWeather(Integer pincode) throws WeatherUnavailableException {
+        Optional<Weather> latest = this.lookupMetrics.time("find-stale-weather",
+                () -> this.weatherRepo.findFirstByPincodeOrderByDateDesc(pincode));
+        if (latest.isEmpty()) {
+            throw new WeatherUnavailableException("Weather service is temporarily unavailable.");
+        }
+        Weather weather = latest.get();
+        weather.setStale(true);
+        return weather;
+    }
+
+    private PincodeGeo loadPincodeGeo(Integer pincode) throws PincodeNotFoundException {
+
+        Optional<PincodeGeo> optionalPincodeLocation = this.lookupMetrics.time("find-pincode-geo",
+                () -> this.pincodeGeoRepo.findById(pincode));
+        if (optionalPincodeLocation.isPresent()) {
+            this.pincodeGeoIndex.add(optionalPincodeLocation.get());
+            return optionalPincodeLocation.get();
+        }
+
+        try {
+            // network call
+            PincodeGeo pincodeGeo = this.lookupMetrics.time("fetch-pincode-geo",
+                    () -> this.weatherClient.fetchPincodeGeo(pincode));
+
+            // persist
+            this.lookupMetrics.time("save-pincode-geo", () -> this.writeBehindPersister.savePincodeGeo(pincodeGeo));
+            this.pincodeGeoIndex.add(pincodeGeo);
+
+            return pincodeGeo;
+        } catch (UpstreamUnavailableException | UpstreamThrottledException e) {
+            // says nothing about the pincode
+            throw e;
+        } catch (RestClientException e) {
+            this.pincodeValidator.recordFailure(pincode, e);
+            throw new PincodeNotFoundException("Provided pincode is invalid.");
+        }
+    }
+
 }
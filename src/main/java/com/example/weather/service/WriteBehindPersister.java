@@ -0,0 +1,61 @@
+package com.example.weather.service;
+
+import java.time.Duration;
+import java.util.Collection;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.weather.entity.PincodeGeo;
+import com.example.weather.entity.Weather;
+import com.example.weather.repository.PincodeRepo;
+import com.example.weather.repository.WeatherRepo;
+
+/**
+ * Persists fetched rows off the request path: lookups hand over what they got from OpenWeather
+ * and return, rows reach MySQL as batched upserts. Queues drain on shutdown.
+ */
+@Component
+public class WriteBehindPersister implements DisposableBean {
+
+    private final WriteBehindQueue<Weather> weatherQueue;
+    private final WriteBehindQueue<PincodeGeo> pincodeGeoQueue;
+
+    public WriteBehindPersister(final WeatherRepo weatherRepo, final PincodeRepo pincodeRepo,
+            @Value("${weather.write-behind.capacity}") final int capacity,
+            @Value("${weather.write-behind.batch-size}") final int batchSize,
+            @Value("${weather.write-behind.flush-interval}") final Duration flushInterval,
+            @Value("${weather.write-behind.offer-timeout}") final Duration offerTimeout,
+            @Value("${weather.write-behind.drain-timeout}") final Duration drainTimeout,
+            final WeatherLookupMetrics lookupMetrics) {
+        this.weatherQueue = new WriteBehindQueue<>("weather",
+                rows -> lookupMetrics.time("upsert-weather", () -> weatherRepo.upsertAll(rows)),
+                capacity, batchSize, flushInterval, offerTimeout, drainTimeout);
+        this.pincodeGeoQueue = new WriteBehindQueue<>("pincode-geo",
+                rows -> lookupMetrics.time("upsert-pincode-geo", () -> pincodeRepo.upsertAll(rows)),
+                capacity, batchSize, flushInterval, offerTimeout, drainTimeout);
+    }
+
+    public void saveWeather(Weather weather) {
+        this.weatherQueue.submit(weather);
+    }
+
+    public void saveWeathers(Collection<Weather> weathers) {
+        weathers.forEach(this.weatherQueue::submit);
+    }
+
+    public void savePincodeGeo(PincodeGeo pincodeGeo) {
+        this.pincodeGeoQueue.submit(pincodeGeo);
+    }
+
+    public void savePincodeGeos(Collection<PincodeGeo> pincodeGeos) {
+        pincodeGeos.forEach(this.pincodeGeoQueue::submit);
+    }
+
+    @Override
+    public void destroy() {
+        this.pincodeGeoQueue.close();
+        this.weatherQueue.close();
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.weather.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded queue drained by one flusher thread that hands the writer batches of up to
+ * {@code batchSize} items, or whatever arrived within {@code flushInterval} of the first one.
+ * A full queue makes producers wait up to {@code offerTimeout}, after which they write the
+ * item themselves: producers slow down instead of items being dropped.
+ */
+@Slf4j
+class WriteBehindQueue<T> implements AutoCloseable {
+
+    // longest the flusher waits before noticing close(), however long the flush interval
+    private static final long SHUTDOWN_CHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final String name;
+    private final Consumer<List<T>> writer;
+    private final BlockingQueue<T> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long offerTimeoutNanos;
+    private final Duration drainTimeout;
+    private final Thread flusher;
+
+    private volatile boolean running = true;
+
+    WriteBehindQueue(String name, Consumer<List<T>> writer, int capacity, int batchSize, Duration flushInterval,
+            Duration offerTimeout, Duration drainTimeout) {
+        this.name = name;
+        this.writer = writer;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.offerTimeoutNanos = offerTimeout.toNanos();
+        this.drainTimeout = drainTimeout;
+        this.flusher = new Thread(this::flushLoop, "write-behind-" + name);
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    void submit(T item) {
+        if (this.running) {
+            try {
+                if (this.queue.offer(item, this.offerTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                    return;
+                }
+                log.debug("Write-behind queue {} is full, writing on the caller thread", this.name);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        write(Collections.singletonList(item));
+    }
+
+    int pending() {
+        return this.queue.size();
+    }
+
+    @Override
+    public void close() {
+        this.running = false;
+        try {
+            this.flusher.join(this.drainTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (this.flusher.isAlive()) {
+            log.warn("Write-behind queue {} did not drain within {}, {} items left", this.name, this.drainTimeout,
+                    this.queue.size());
+            this.flusher.interrupt();
+            return;
+        }
+        // late submits that raced with shutdown
+        List<T> rest = new ArrayList<>();
+        this.queue.drainTo(rest);
+        write(rest);
+    }
+
+    private void flushLoop() {
+        List<T> batch = new ArrayList<>(this.batchSize);
+        while (this.running || !this.queue.isEmpty()) {
+            try {
+                T first = this.queue.poll(Math.min(this.flushIntervalNanos, SHUTDOWN_CHECK_NANOS), TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + this.flushIntervalNanos;
+                while (batch.size() < this.batchSize) {
+                    this.queue.drainTo(batch, this.batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= this.batchSize || remaining <= 0 || !this.running) {
+                        break;
+                    }
+                    T next = this.queue.poll(Math.min(remaining, SHUTDOWN_CHECK_NANOS), TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                    }
+                }
+            } catch (InterruptedException e) {
+                // drain timed out on shutdown, write what we hold and stop
+                this.queue.drainTo(batch);
+                write(batch);
+                return;
+            }
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<T> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            this.writer.accept(batch);
+        } catch (RuntimeException e) {
+            // the rows are refetched from OpenWeather on a later miss
+            log.error("Write-behind queue {} failed to persist {} items", this.name, batch.size(), e);
+        }
+    }
+}
@@ -0,0 +1,6 @@
+-- One-off for schemas created before uk_weather_pincode_date existed: drop duplicate
+-- (pincode, date) rows, keeping the newest, then add the unique index.
+DELETE older FROM weather older
+    JOIN weather newer ON newer.pincode = older.pincode AND newer.date = older.date AND newer.id > older.id;
+
+ALTER TABLE weather ADD CONSTRAINT uk_weather_pincode_date UNIQUE (pincode, date);
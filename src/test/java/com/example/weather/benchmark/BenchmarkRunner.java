@@ -0,0 +1,85 @@
+package com.example.weather.benchmark;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Runs every benchmark in this package with short, CI-sized settings and writes JMH's JSON result.
+ * Given a baseline (a previous run's JSON), fails when any benchmark got slower than allowed:
+ * <pre>
+ * mvn -Pbenchmarks verify -Djmh.baseline=benchmarks/baseline.json
+ * </pre>
+ * System properties: {@code jmh.include} (regex, default this package), {@code jmh.forks},
+ * {@code jmh.warmup-iterations}, {@code jmh.iterations}, {@code jmh.iteration-time} (seconds),
+ * {@code jmh.result}, {@code jmh.baseline}, {@code jmh.max-regression} (fraction, default 0.25).
+ * Scores are average times, so higher is slower.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String result = System.getProperty("jmh.result", "target/jmh-result.json");
+        int iterationSeconds = Integer.getInteger("jmh.iteration-time", 1);
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(System.getProperty("jmh.include", BenchmarkRunner.class.getPackageName() + "\\..*Benchmark"))
+                .forks(Integer.getInteger("jmh.forks", 1))
+                .warmupIterations(Integer.getInteger("jmh.warmup-iterations", 2))
+                .warmupTime(TimeValue.seconds(iterationSeconds))
+                .measurementIterations(Integer.getInteger("jmh.iterations", 3))
+                .measurementTime(TimeValue.seconds(iterationSeconds))
+                .resultFormat(ResultFormatType.JSON)
+                .result(result);
+        Collection<RunResult> results = new Runner(options.build()).run();
+
+        String baseline = System.getProperty("jmh.baseline");
+        if (baseline == null || baseline.isEmpty()) {
+            return;
+        }
+        List<String> regressions = regressions(readScores(new File(baseline)), results,
+                Double.parseDouble(System.getProperty("jmh.max-regression", "0.25")));
+        if (!regressions.isEmpty()) {
+            regressions.forEach(System.err::println);
+            System.exit(1);
+        }
+        System.out.println("No benchmark regressed beyond the allowed margin against " + baseline);
+    }
+
+    static List<String> regressions(Map<String, Double> baseline, Collection<RunResult> results,
+            double maxRegression) {
+        List<String> regressions = new ArrayList<>();
+        for (RunResult result : results) {
+            String benchmark = result.getParams().getBenchmark();
+            Double before = baseline.get(benchmark);
+            double after = result.getPrimaryResult().getScore();
+            if (before != null && before > 0 && after > before * (1 + maxRegression)) {
+                regressions.add(String.format("REGRESSION %s: %.1f -> %.1f %s (+%.0f%%)", benchmark, before, after,
+                        result.getPrimaryResult().getScoreUnit(), (after / before - 1) * 100));
+            }
+        }
+        return regressions;
+    }
+
+    static Map<String, Double> readScores(File jmhJson) throws Exception {
+        Map<String, Double> scores = new HashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(jmhJson)) {
+            scores.put(run.path("benchmark").asText(), run.path("primaryMetric").path("score").asDouble());
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.weather.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.example.weather.cache.CacheInvalidationPublisher;
+import com.example.weather.cache.PincodeGeoIndex;
+import com.example.weather.cache.WeatherCacheKeys;
+import com.example.weather.client.OpenWeatherClient;
+import com.example.weather.entity.PincodeGeo;
+import com.example.weather.entity.Weather;
+import com.example.weather.repository.PincodeRepo;
+import com.example.weather.repository.WeatherRepo;
+
+/**
+ * Allocation-light stand-ins for MySQL, OpenWeather and Redis pub/sub, so benchmarks measure the
+ * service's own overhead rather than Mockito's invocation handling or network time.
+ */
+final class InMemoryStandIns {
+
+    private InMemoryStandIns() {
+    }
+
+    static Weather weather(int pincode, LocalDate date) {
+        return new Weather(null, pincode, "Patiala", date, 303.61, "clear sky");
+    }
+
+    // findByPincodeAndDate reads the given rows, upserts are dropped, anything else is unsupported
+    static WeatherRepo weatherRepo(Map<String, Weather> rows) {
+        return (WeatherRepo) Proxy.newProxyInstance(WeatherRepo.class.getClassLoader(),
+                new Class<?>[] { WeatherRepo.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "findByPincodeAndDate":
+                            return Optional.ofNullable(rows.get(WeatherCacheKeys.of((Integer) args[0], (LocalDate) args[1])));
+                        case "upsert":
+                        case "upsertAll":
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    static PincodeRepo pincodeRepo() {
+        Map<Integer, PincodeGeo> rows = new ConcurrentHashMap<>();
+        return (PincodeRepo) Proxy.newProxyInstance(PincodeRepo.class.getClassLoader(),
+                new Class<?>[] { PincodeRepo.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "findById":
+                            return Optional.ofNullable(rows.get(args[0]));
+                        case "upsertAll":
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    static OpenWeatherClient openWeatherClient() {
+        return new OpenWeatherClient(null, "http://localhost", "benchmark") {
+
+            @Override
+            public PincodeGeo fetchPincodeGeo(Integer pincode) {
+                return new PincodeGeo(pincode, 30.34, 76.38);
+            }
+
+            @Override
+            public Weather fetchWeather(double latitude, double longitude, LocalDate date) {
+                return weather(0, date);
+            }
+        };
+    }
+
+    // never knows a pincode, so every miss geocodes
+    static PincodeGeoIndex emptyPincodeGeoIndex() {
+        return new PincodeGeoIndex(null) {
+
+            @Override
+            public boolean find(int pincode, double[] coordinates) {
+                return false;
+            }
+
+            @Override
+            public Optional<PincodeGeo> find(int pincode) {
+                return Optional.empty();
+            }
+
+            @Override
+            public boolean contains(int pincode) {
+                return false;
+            }
+
+            @Override
+            public void add(PincodeGeo pincodeGeo) {
+            }
+        };
+    }
+
+    static CacheInvalidationPublisher invalidationPublisher() {
+        return new CacheInvalidationPublisher(null, "benchmark") {
+
+            @Override
+            public void publishEvict(String cacheName, String key) {
+            }
+
+            @Override
+            public void publishEvictAll(String cacheName, Collection<String> keys) {
+            }
+
+            @Override
+            public void publishClear(String cacheName) {
+            }
+        };
+    }
+}
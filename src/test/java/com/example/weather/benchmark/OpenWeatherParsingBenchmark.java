@@ -0,0 +1,104 @@
+package com.example.weather.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.example.weather.client.OpenWeatherResponseParser;
+import com.example.weather.entity.PincodeGeo;
+import com.example.weather.entity.Weather;
+import com.example.weather.response.GeocodingApiResponse;
+import com.example.weather.response.WeatherApiResponse;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * DTO mapping vs. the streaming parser on a real-sized OpenWeather payload.
+ * Run with the gc profiler to compare bytes allocated per response (gc.alloc.rate.norm):
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.weather.benchmark.OpenWeatherParsingBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OpenWeatherParsingBenchmark {
+
+    private final LocalDate date = LocalDate.of(2023, 6, 5);
+
+    // same as the RestTemplate's message converter: unknown properties are ignored
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final OpenWeatherResponseParser parser = new OpenWeatherResponseParser();
+
+    private byte[] weatherPayload;
+    private byte[] geoPayload;
+
+    @Setup
+    public void setUp() throws IOException {
+        weatherPayload = read("/openweather/weather.json");
+        geoPayload = read("/openweather/geo.json");
+    }
+
+    @Benchmark
+    public Weather weatherDtoMapping() throws IOException {
+        WeatherApiResponse apiResponse = objectMapper.readValue(new ByteArrayInputStream(weatherPayload),
+                WeatherApiResponse.class);
+        Weather weather = new Weather();
+        weather.setDate(date);
+        weather.setTemperature(apiResponse.getMain().getTemp());
+        weather.setDescription(apiResponse.getWeather().get(0).getDescription());
+        weather.setPlace(apiResponse.getName());
+        return weather;
+    }
+
+    @Benchmark
+    public Weather weatherStreaming() {
+        return parser.parseWeather(new ByteArrayInputStream(weatherPayload), date);
+    }
+
+    @Benchmark
+    public PincodeGeo geoDtoMapping() throws IOException {
+        GeocodingApiResponse apiResponse = objectMapper.readValue(new ByteArrayInputStream(geoPayload),
+                GeocodingApiResponse.class);
+        return new PincodeGeo(147001, apiResponse.getLat(), apiResponse.getLon());
+    }
+
+    @Benchmark
+    public PincodeGeo geoStreaming() {
+        return parser.parsePincodeGeo(new ByteArrayInputStream(geoPayload), 147001);
+    }
+
+    private static byte[] read(String resource) throws IOException {
+        try (InputStream in = OpenWeatherParsingBenchmark.class.getResourceAsStream(resource)) {
+            return in.readAllBytes();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(OpenWeatherParsingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
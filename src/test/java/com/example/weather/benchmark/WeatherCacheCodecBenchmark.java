@@ -0,0 +1,117 @@
+package com.example.weather.benchmark;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import com.example.weather.cache.WeatherCacheKeys;
+import com.example.weather.cache.WeatherRedisSerializer;
+import com.example.weather.entity.Weather;
+
+/**
+ * JDK serialization and the SpEL {@code <pincode>_<date>} key (the previous setup) vs.
+ * {@link WeatherRedisSerializer} and the packed {@link WeatherCacheKeys} key.
+ * {@code main} prints bytes per entry before running the benchmarks:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.weather.benchmark.WeatherCacheCodecBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WeatherCacheCodecBenchmark {
+
+    private final Integer pincode = 147001;
+    private final LocalDate date = LocalDate.of(2023, 6, 5);
+
+    private final JdkSerializationRedisSerializer jdk = new JdkSerializationRedisSerializer();
+    private final WeatherRedisSerializer compact = new WeatherRedisSerializer(getClass().getClassLoader());
+
+    // what @Cacheable(key = "#pincode+ '_' + #date") evaluated per call
+    private final Expression spelKey = new SpelExpressionParser().parseExpression("#pincode+ '_' + #date");
+
+    private Weather weather;
+    private byte[] jdkBytes;
+    private byte[] compactBytes;
+
+    @Setup
+    public void setUp() {
+        weather = stubWeather();
+        jdkBytes = jdk.serialize(weather);
+        compactBytes = compact.serialize(weather);
+    }
+
+    @Benchmark
+    public byte[] encodeJdk() {
+        return jdk.serialize(weather);
+    }
+
+    @Benchmark
+    public byte[] encodeCompact() {
+        return compact.serialize(weather);
+    }
+
+    @Benchmark
+    public Object decodeJdk() {
+        return jdk.deserialize(jdkBytes);
+    }
+
+    @Benchmark
+    public Object decodeCompact() {
+        return compact.deserialize(compactBytes);
+    }
+
+    @Benchmark
+    public Object keySpel() {
+        EvaluationContext context = new StandardEvaluationContext();
+        context.setVariable("pincode", pincode);
+        context.setVariable("date", date);
+        return spelKey.getValue(context);
+    }
+
+    @Benchmark
+    public String keyPacked() {
+        return WeatherCacheKeys.of(pincode, date);
+    }
+
+    private static Weather stubWeather() {
+        return new Weather(1L, 147001, "Patiala", LocalDate.of(2023, 6, 5), 303.61, "clear sky");
+    }
+
+    public static void main(String[] args) throws Exception {
+        Weather weather = stubWeather();
+        System.out.printf("value bytes: jdk=%d compact=%d%n",
+                new JdkSerializationRedisSerializer().serialize(weather).length,
+                new WeatherRedisSerializer(WeatherCacheCodecBenchmark.class.getClassLoader()).serialize(weather).length);
+        System.out.printf("key bytes:   spel=%d packed=%d%n",
+                (weather.getPincode() + "_" + weather.getDate()).length(),
+                WeatherCacheKeys.of(weather.getPincode(), weather.getDate()).length());
+
+        new Runner(new OptionsBuilder()
+                .include(WeatherCacheCodecBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.weather.benchmark;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+
+import com.example.weather.cache.HotKeyTracker;
+import com.example.weather.cache.PincodeGeoIndex;
+import com.example.weather.cache.TwoLevelCacheManager;
+import com.example.weather.cache.WeatherCacheKeys;
+import com.example.weather.cache.WeatherKeyGenerator;
+import com.example.weather.entity.Weather;
+import com.example.weather.repository.PincodeRepo;
+import com.example.weather.repository.WeatherRepo;
+import com.example.weather.service.PincodeValidator;
+import com.example.weather.service.WeatherLookupMetrics;
+import com.example.weather.service.WeatherService;
+import com.example.weather.service.WriteBehindPersister;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * {@link WeatherService#getWeather} on its three paths, with {@link InMemoryStandIns} behind it:
+ * <ul>
+ * <li>cacheHit - through the {@code @Cacheable} proxy, answered by the L1 tier</li>
+ * <li>dbHit - cache skipped, the row comes from the repository</li>
+ * <li>fullMiss - no row, no indexed location: geocode, fetch and write-behind hand-off</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WeatherServiceBenchmark {
+
+    private static final int PINCODE = 147001;
+    private static final LocalDate DATE = LocalDate.of(2023, 6, 5);
+
+    private AnnotationConfigApplicationContext context;
+    private WeatherService cachedService;
+    private WeatherService service;
+
+    // a new date per call, so the full-miss path never finds its own earlier result
+    private final AtomicInteger missDays = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = new AnnotationConfigApplicationContext(ServiceConfig.class);
+        cachedService = context.getBean(WeatherService.class);
+        service = context.getBean(ServiceConfig.class).uncachedService;
+        cachedService.getWeather(PINCODE, DATE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Weather cacheHit() throws Exception {
+        return cachedService.getWeather(PINCODE, DATE);
+    }
+
+    @Benchmark
+    public Weather dbHit() throws Exception {
+        return service.getWeather(PINCODE, DATE);
+    }
+
+    @Benchmark
+    public Weather fullMiss() throws Exception {
+        return service.getWeather(PINCODE, DATE.plusDays(1 + missDays.getAndIncrement() % 100_000));
+    }
+
+    // registered directly rather than as a @Configuration, so the application's component scan skips it
+    @EnableCaching
+    static class ServiceConfig {
+
+        private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        private final PincodeGeoIndex pincodeGeoIndex = InMemoryStandIns.emptyPincodeGeoIndex();
+        private final PincodeRepo pincodeRepo = InMemoryStandIns.pincodeRepo();
+        private final WeatherRepo weatherRepo;
+        private final WeatherLookupMetrics lookupMetrics = new WeatherLookupMetrics(meterRegistry);
+        private final PincodeValidator pincodeValidator = new PincodeValidator(pincodeGeoIndex, Duration.ofHours(6),
+                100_000, false);
+        private final WriteBehindPersister writeBehindPersister;
+        private final WeatherService uncachedService;
+
+        ServiceConfig() {
+            Map<String, Weather> rows = new HashMap<>();
+            rows.put(WeatherCacheKeys.of(PINCODE, DATE), InMemoryStandIns.weather(PINCODE, DATE));
+            weatherRepo = InMemoryStandIns.weatherRepo(rows);
+            writeBehindPersister = new WriteBehindPersister(weatherRepo, pincodeRepo, 10_000, 500,
+                    Duration.ofMillis(200), Duration.ofMillis(50), Duration.ofSeconds(10), lookupMetrics);
+            uncachedService = newService();
+        }
+
+        private WeatherService newService() {
+            return new WeatherService(weatherRepo, pincodeRepo, InMemoryStandIns.openWeatherClient(), pincodeGeoIndex,
+                    pincodeValidator, writeBehindPersister, lookupMetrics);
+        }
+
+        @Bean
+        public WeatherService weatherService() {
+            return newService();
+        }
+
+        @Bean(destroyMethod = "destroy")
+        public WriteBehindPersister writeBehindPersister() {
+            return writeBehindPersister;
+        }
+
+        @Bean
+        public WeatherKeyGenerator weatherKeyGenerator() {
+            return new WeatherKeyGenerator();
+        }
+
+        @Bean
+        public TwoLevelCacheManager cacheManager() {
+            return TwoLevelCacheManager
+                    .builder(new ConcurrentMapCacheManager(), InMemoryStandIns.invalidationPublisher())
+                    .localCache(10_000, Duration.ofMinutes(10))
+                    .hotKeyTrackers(Map.of(WeatherCacheKeys.CACHE_NAME, new HotKeyTracker(50_000)))
+                    .meterRegistry(meterRegistry)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.weather.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class HotKeyTrackerTest {
+
+    private final HotKeyTracker subject = new HotKeyTracker(3);
+
+    private void record(String key, int times) {
+        for (int i = 0; i < times; i++) {
+            subject.record(key);
+        }
+    }
+
+    @Test
+    void hottest_whenKeysRecorded_thenHottestFirstAboveMinScore() {
+        record("147001_2023-06-05", 5);
+        record("110001_2023-06-05", 9);
+        record("560001_2023-06-05", 1);
+
+        assertEquals(List.of("110001_2023-06-05", "147001_2023-06-05"), subject.hottest(5, 2));
+        assertEquals(List.of("110001_2023-06-05"), subject.hottest(1, 0));
+    }
+
+    @Test
+    void decay_whenCalled_thenHalvesScoresAndForgetsColdKeys() {
+        record("147001_2023-06-05", 8);
+        record("560001_2023-06-05", 1);
+
+        subject.decay();
+
+        assertEquals(4, subject.score("147001_2023-06-05"));
+        assertEquals(1, subject.size());
+    }
+
+    @Test
+    void record_whenFull_thenNewKeysWaitForDecay() {
+        record("1", 4);
+        record("2", 4);
+        record("3", 1);
+        record("4", 1);
+
+        assertEquals(0, subject.score("4"));
+
+        subject.decay();
+        record("4", 1);
+        assertEquals(1, subject.score("4"));
+    }
+}
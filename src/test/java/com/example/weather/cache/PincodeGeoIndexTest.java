@@ -0,0 +1,114 @@
+package com.example.weather.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import java.sql.ResultSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import com.example.weather.entity.PincodeGeo;
+
+@ExtendWith(MockitoExtension.class)
+public class PincodeGeoIndexTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ResultSet resultSet;
+
+    private PincodeGeoIndex subject;
+
+    @BeforeEach
+    public void setUp() {
+        subject = new PincodeGeoIndex(jdbcTemplate);
+    }
+
+    @Test
+    void reload_whenTableHasRows_thenFindsThemByPincode() throws Exception {
+        Mockito.when(resultSet.getInt(1)).thenReturn(110001, 147001);
+        Mockito.when(resultSet.getDouble(2)).thenReturn(28.63, 30.37);
+        Mockito.when(resultSet.getDouble(3)).thenReturn(77.22, 76.15);
+        Mockito.doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(resultSet);
+            handler.processRow(resultSet);
+            return null;
+        }).when(jdbcTemplate).query(eq(PincodeGeoIndex.SELECT_ALL_SQL), any(RowCallbackHandler.class));
+
+        subject.reload();
+
+        assertEquals(2, subject.size());
+        PincodeGeo pincodeGeo = subject.find(147001).get();
+        assertEquals(30.37, pincodeGeo.getLatitude());
+        assertEquals(76.15, pincodeGeo.getLongitude());
+        assertFalse(subject.find(560001).isPresent());
+    }
+
+    @Test
+    void reload_whenQueryFails_thenKeepsPreviousSnapshot() {
+        subject.add(new PincodeGeo(147001, 30.37, 76.15));
+        Mockito.doThrow(new DataAccessResourceFailureException("down"))
+                .when(jdbcTemplate).query(eq(PincodeGeoIndex.SELECT_ALL_SQL), any(RowCallbackHandler.class));
+
+        subject.reload();
+
+        assertTrue(subject.contains(147001));
+    }
+
+    @Test
+    void add_whenInsertedOutOfOrder_thenStaysSearchable() {
+        subject.add(new PincodeGeo(560001, 12.97, 77.59));
+        subject.add(new PincodeGeo(110001, 28.63, 77.22));
+        subject.add(new PincodeGeo(400001, 18.94, 72.83));
+        subject.add(new PincodeGeo(110001, 28.64, 77.21));
+
+        assertEquals(3, subject.size());
+        assertEquals(28.64, subject.find(110001).get().getLatitude());
+        assertEquals(18.94, subject.find(400001).get().getLatitude());
+        assertEquals(77.59, subject.find(560001).get().getLongitude());
+    }
+
+    @Test
+    void reload_whenAddedWhileQueryRuns_thenAdditionKept() throws Exception {
+        Mockito.when(resultSet.getInt(1)).thenReturn(110001);
+        Mockito.when(resultSet.getDouble(2)).thenReturn(28.63);
+        Mockito.when(resultSet.getDouble(3)).thenReturn(77.22);
+        Mockito.doAnswer(invocation -> {
+            // not flushed to pincode_geo yet, so missing from the query result
+            subject.add(new PincodeGeo(147001, 30.37, 76.15));
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(resultSet);
+            return null;
+        }).when(jdbcTemplate).query(eq(PincodeGeoIndex.SELECT_ALL_SQL), any(RowCallbackHandler.class));
+
+        subject.reload();
+
+        assertEquals(2, subject.size());
+        assertTrue(subject.contains(110001));
+        assertTrue(subject.contains(147001));
+        assertEquals(30.37, subject.find(147001).get().getLatitude());
+    }
+
+    @Test
+    void find_whenIndexed_thenWritesCoordinates() {
+        subject.add(new PincodeGeo(147001, 30.37, 76.15));
+        double[] coordinates = new double[2];
+
+        assertTrue(subject.find(147001, coordinates));
+        assertEquals(30.37, coordinates[0]);
+        assertEquals(76.15, coordinates[1]);
+        assertFalse(subject.find(560001, coordinates));
+        assertEquals(30.37, coordinates[0]);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.weather.cache;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+@ExtendWith(MockitoExtension.class)
+public class TtlPolicyRedisCacheTest {
+
+    @Mock
+    private RedisCacheWriter cacheWriter;
+
+    private TtlPolicyRedisCache subject;
+
+    @BeforeEach
+    public void setUp() {
+        CacheTtlPolicy ttlPolicy = key -> key.endsWith("2099-01-01") ? null : Duration.ofHours(1);
+        subject = new TtlPolicyRedisCache("weather", cacheWriter,
+                RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofHours(6)), ttlPolicy);
+    }
+
+    @Test
+    void put_whenPolicyGivesTtl_thenWritesWithThatTtl() {
+        subject.put("147001_2023-06-05", "clear sky");
+
+        verify(cacheWriter).put(eq("weather"), any(byte[].class), any(byte[].class), eq(Duration.ofHours(1)));
+    }
+
+    @Test
+    void put_whenPolicyRefuses_thenNothingWritten() {
+        subject.put("147001_2099-01-01", "clear sky");
+
+        assertNull(subject.putIfAbsent("147001_2099-01-01", "clear sky"));
+        verify(cacheWriter, Mockito.never()).put(anyString(), any(byte[].class), any(byte[].class), any());
+        verify(cacheWriter, Mockito.never()).putIfAbsent(anyString(), any(byte[].class), any(byte[].class), any());
+    }
+}
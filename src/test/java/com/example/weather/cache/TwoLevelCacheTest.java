@@ -0,0 +1,106 @@
+package com.example.weather.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import java.time.Duration;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class TwoLevelCacheTest {
+
+    @Mock
+    private CacheInvalidationPublisher invalidationPublisher;
+
+    private ConcurrentMapCache remote;
+
+    private TwoLevelCache subject;
+
+    @BeforeEach
+    public void setUp() {
+        remote = new ConcurrentMapCache("weather");
+        subject = TwoLevelCache.builder("weather", Caffeine.newBuilder().maximumSize(100).build(), remote,
+                invalidationPublisher).build();
+    }
+
+    @Test
+    void get_whenOnlyRemoteHasValue_thenPromotesToLocal() {
+        remote.put("147001_2023-06-05", "clear sky");
+
+        assertEquals("clear sky", subject.get("147001_2023-06-05").get());
+
+        remote.evict("147001_2023-06-05");
+        assertEquals("clear sky", subject.get("147001_2023-06-05").get());
+    }
+
+    @Test
+    void put_whenCalled_thenWritesBothTiersAndPublishesEviction() {
+        subject.put("147001_2023-06-05", "clear sky");
+
+        assertEquals("clear sky", remote.get("147001_2023-06-05").get());
+        verify(invalidationPublisher).publishEvict("weather", "147001_2023-06-05");
+    }
+
+    @Test
+    void evictLocal_whenPeerInvalidates_thenRereadsRemote() {
+        subject.put("147001_2023-06-05", "clear sky");
+        remote.put("147001_2023-06-05", "haze");
+
+        subject.evictLocal("147001_2023-06-05");
+
+        assertEquals("haze", subject.get("147001_2023-06-05").get());
+    }
+
+    @Test
+    void get_whenNullValueCached_thenReturnsWrapperWithNull() {
+        subject.put("147001_2023-06-05", null);
+
+        assertNotNull(subject.get("147001_2023-06-05"));
+        assertNull(subject.get("147001_2023-06-05").get());
+    }
+
+    @Test
+    void put_whenPolicyRefusesKey_thenNeitherTierWritten() {
+        subject = TwoLevelCache.builder("weather", Caffeine.newBuilder().maximumSize(100).build(), remote,
+                invalidationPublisher)
+                .ttlPolicy(key -> key.endsWith("2099-01-01") ? null : Duration.ofHours(1))
+                .build();
+
+        subject.put("147001_2099-01-01", "clear sky");
+        subject.putAll(Map.of("147001_2099-01-01", "clear sky"));
+
+        assertNull(remote.get("147001_2099-01-01"));
+        assertNull(subject.get("147001_2099-01-01"));
+        verifyNoInteractions(invalidationPublisher);
+    }
+
+    @Test
+    void get_whenMeterRegistryGiven_thenLookupsTimedByAnsweringTier() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        subject = TwoLevelCache.builder("weather", Caffeine.newBuilder().maximumSize(100).build(), remote,
+                invalidationPublisher)
+                .meterRegistry(meterRegistry)
+                .build();
+        remote.put("147001_2023-06-05", "clear sky");
+
+        subject.get("110001_2023-06-05");
+        subject.get("147001_2023-06-05");
+        subject.get("147001_2023-06-05");
+
+        assertEquals(1, meterRegistry.get("cache.lookup").tag("outcome", "miss").timer().count());
+        assertEquals(1, meterRegistry.get("cache.lookup").tag("outcome", "remote").timer().count());
+        assertEquals(1, meterRegistry.get("cache.lookup").tag("outcome", "local").timer().count());
+    }
+}
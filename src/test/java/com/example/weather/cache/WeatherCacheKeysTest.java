@@ -0,0 +1,27 @@
+package com.example.weather.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import java.time.LocalDate;
+import org.junit.jupiter.api.Test;
+
+public class WeatherCacheKeysTest {
+
+    @Test
+    void of_whenDecoded_thenSamePincodeAndDate() {
+        String key = WeatherCacheKeys.of(999999, LocalDate.of(2023, 6, 5));
+
+        assertEquals(999999, WeatherCacheKeys.pincodeOf(key));
+        assertEquals(LocalDate.of(2023, 6, 5), WeatherCacheKeys.dateOf(key));
+        assertEquals(LocalDate.of(1960, 1, 1),
+                WeatherCacheKeys.dateOf(WeatherCacheKeys.of(147001, LocalDate.of(1960, 1, 1))));
+    }
+
+    @Test
+    void of_whenDifferentDate_thenDifferentKey() {
+        assertNotEquals(WeatherCacheKeys.of(147001, LocalDate.of(2023, 6, 5)),
+                WeatherCacheKeys.of(147001, LocalDate.of(2023, 6, 6)));
+        assertEquals(WeatherCacheKeys.of(147001, LocalDate.of(2023, 6, 5)),
+                new WeatherKeyGenerator().generate(null, Object.class.getMethods()[0], 147001, LocalDate.of(2023, 6, 5)));
+    }
+}
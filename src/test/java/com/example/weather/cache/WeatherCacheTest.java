@@ -0,0 +1,78 @@
+package com.example.weather.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import com.example.weather.entity.Weather;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class WeatherCacheTest {
+
+    @Mock
+    private BatchCacheOperations remoteBatchOperations;
+
+    @Mock
+    private CacheInvalidationPublisher invalidationPublisher;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private WeatherCache subject;
+
+    private final LocalDate date = LocalDate.of(2023, 6, 5);
+
+    @BeforeEach
+    public void setUp() {
+        TwoLevelCacheManager cacheManager = TwoLevelCacheManager
+                .builder(new ConcurrentMapCacheManager(), invalidationPublisher)
+                .localCache(100, Duration.ofMinutes(1))
+                .batchOperations(new InstrumentedBatchCacheOperations(remoteBatchOperations, meterRegistry))
+                .build();
+        subject = new WeatherCache(cacheManager);
+    }
+
+    private Weather getStubWeather(int pincode, LocalDate date) {
+        return new Weather(null, pincode, "Nābha", date, 313.48, "clear sky");
+    }
+
+    @Test
+    void getDays_whenSeveralDatesMissLocally_thenOneRemoteRoundTrip() {
+        Mockito.when(remoteBatchOperations.getAll(eq(WeatherCacheKeys.CACHE_NAME), anyCollection()))
+                .thenReturn(Map.of(WeatherCacheKeys.of(147001, date.plusDays(1)), getStubWeather(147001, date.plusDays(1))));
+
+        Map<LocalDate, Weather> actual = subject.getDays(147001, List.of(date, date.plusDays(1), date.plusDays(2)));
+
+        assertEquals(1, actual.size());
+        assertEquals(date.plusDays(1), actual.get(date.plusDays(1)).getDate());
+        assertEquals(1.0, meterRegistry.get("cache.remote.round.trips").tag("operation", "mget").counter().count());
+        assertEquals(3.0, meterRegistry.get("cache.remote.batch.keys").tag("operation", "mget").summary().totalAmount());
+    }
+
+    @Test
+    void putAll_whenWeathers_thenOneRemoteWriteAndServedLocally() {
+        subject.putAll(List.of(getStubWeather(147001, date), getStubWeather(110001, date)));
+
+        Map<Integer, Weather> actual = subject.getPincodes(List.of(147001, 110001), date);
+
+        assertEquals(2, actual.size());
+        assertEquals(110001, actual.get(110001).getPincode());
+        verify(remoteBatchOperations).putAll(eq(WeatherCacheKeys.CACHE_NAME), anyMap());
+        verify(remoteBatchOperations, Mockito.never()).getAll(eq(WeatherCacheKeys.CACHE_NAME), anyCollection());
+        assertEquals(1.0, meterRegistry.get("cache.remote.round.trips").tag("operation", "mset").counter().count());
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.weather.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import com.example.weather.entity.Weather;
+
+public class WeatherRedisSerializerTest {
+
+    private final WeatherRedisSerializer subject = new WeatherRedisSerializer(getClass().getClassLoader());
+
+    private Weather getStubWeather() {
+        return new Weather(42L, 147001, "Pātiāla", LocalDate.of(2023, 6, 5), 303.61, "clear sky");
+    }
+
+    @Test
+    void deserialize_whenWeatherSerialized_thenSameFields() {
+        Weather actual = (Weather) subject.deserialize(subject.serialize(getStubWeather()));
+
+        assertEquals(42L, actual.getId());
+        assertEquals(147001, actual.getPincode());
+        assertEquals("Pātiāla", actual.getPlace());
+        assertEquals(LocalDate.of(2023, 6, 5), actual.getDate());
+        assertEquals(303.61, actual.getTemperature());
+        assertEquals("clear sky", actual.getDescription());
+    }
+
+    @Test
+    void deserialize_whenFieldsNull_thenStillNull() {
+        Weather actual = (Weather) subject.deserialize(subject.serialize(new Weather()));
+
+        assertNull(actual.getId());
+        assertNull(actual.getPincode());
+        assertNull(actual.getPlace());
+        assertNull(actual.getDate());
+        assertNull(actual.getDescription());
+    }
+
+    @Test
+    void serialize_whenWeather_thenSmallerThanJdkSerialization() {
+        byte[] jdk = new JdkSerializationRedisSerializer().serialize(getStubWeather());
+        byte[] compact = subject.serialize(getStubWeather());
+
+        assertTrue(compact.length * 5 < jdk.length, compact.length + " vs " + jdk.length + " bytes");
+    }
+
+    @Test
+    void deserialize_whenOtherValue_thenFallsBackToJdkSerialization() {
+        assertEquals(List.of("clear sky"), subject.deserialize(subject.serialize(List.of("clear sky"))));
+        assertEquals(List.of("clear sky"),
+                subject.deserialize(new JdkSerializationRedisSerializer().serialize(List.of("clear sky"))));
+    }
+
+    @Test
+    void deserialize_whenTruncated_thenSerializationException() {
+        byte[] bytes = subject.serialize(getStubWeather());
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 4);
+
+        assertThrows(SerializationException.class, () -> subject.deserialize(truncated));
+    }
+}
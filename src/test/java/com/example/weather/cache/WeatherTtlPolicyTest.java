@@ -0,0 +1,40 @@
+package com.example.weather.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import org.junit.jupiter.api.Test;
+
+public class WeatherTtlPolicyTest {
+
+    // 2023-06-05 01:00 in India, still 2023-06-04 in UTC
+    private final Clock clock = Clock.fixed(Instant.parse("2023-06-04T19:30:00Z"), ZoneId.of("Asia/Kolkata"));
+
+    private final WeatherTtlPolicy subject = new WeatherTtlPolicy(clock, Duration.ofDays(30), Duration.ofHours(1), 5);
+
+    @Test
+    void ttlFor_whenPastDate_thenLongTtl() {
+        assertEquals(Duration.ofDays(30), subject.ttlFor(key(2023, 6, 4)));
+        assertEquals(Duration.ofDays(30), subject.ttlFor(key(2020, 1, 1)));
+    }
+
+    @Test
+    void ttlFor_whenTodayOrWithinForecastRange_thenShortTtl() {
+        assertEquals(Duration.ofHours(1), subject.ttlFor(key(2023, 6, 5)));
+        assertEquals(Duration.ofHours(1), subject.ttlFor(key(2023, 6, 10)));
+    }
+
+    @Test
+    void ttlFor_whenBeyondForecastRange_thenNotCached() {
+        assertNull(subject.ttlFor(key(2023, 6, 11)));
+        assertNull(subject.ttlFor(key(2099, 1, 1)));
+    }
+
+    private static String key(int year, int month, int day) {
+        return WeatherCacheKeys.of(147001, LocalDate.of(year, month, day));
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.weather.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ApiKeyPoolTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void parseKeys_whenCommaSeparated_thenTrimmedKeys() {
+        assertEquals(List.of("a", "b", "c"), ApiKeyPool.parseKeys("a, b,,c "));
+    }
+
+    @Test
+    void acquire_whenKeysHealthy_thenRoundRobin() {
+        ApiKeyPool subject = pool(List.of("a", "b", "c"), 100);
+
+        assertEquals("a", lease(subject));
+        assertEquals("b", lease(subject));
+        assertEquals("c", lease(subject));
+        assertEquals("a", lease(subject));
+        assertEquals(2.0, meterRegistry.get("upstream.key.requests").tag("key", "key-0").counter().count());
+    }
+
+    @Test
+    void acquire_whenKeyOutOfBudget_thenNextKey() {
+        ApiKeyPool subject = pool(List.of("a", "b"), 1);
+
+        assertEquals("a", lease(subject));
+        assertEquals("b", lease(subject));
+
+        // one token per key, refilled far slower than the test runs
+        assertThrows(UpstreamThrottledException.class, () -> subject.acquire());
+    }
+
+    @Test
+    void release_whenRateLimited_thenKeyBenchedForRetryAfter() {
+        ApiKeyPool subject = pool(List.of("a", "b"), 100);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "60");
+
+        subject.acquire().release(HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "", headers, null, null));
+
+        assertEquals("b", lease(subject));
+        assertEquals("b", lease(subject));
+        assertEquals(0.0, meterRegistry.get("upstream.key.available").tag("key", "key-0").gauge().value());
+        assertEquals(1.0, meterRegistry.get("upstream.key.benched").tag("key", "key-0").tag("reason", "rate-limited")
+                .counter().count());
+    }
+
+    @Test
+    void release_whenUnauthorizedEverywhere_thenThrottled() {
+        ApiKeyPool subject = pool(List.of("a", "b"), 100);
+
+        subject.acquire().release(HttpClientErrorException.create(HttpStatus.UNAUTHORIZED, "", null, null, null));
+        subject.acquire().release(HttpClientErrorException.create(HttpStatus.UNAUTHORIZED, "", null, null, null));
+
+        assertThrows(UpstreamThrottledException.class, () -> subject.acquire());
+    }
+
+    @Test
+    void release_whenOtherFailure_thenKeyStaysInRotation() {
+        ApiKeyPool subject = pool(List.of("a"), 100);
+
+        subject.acquire().release(HttpServerErrorException.create(HttpStatus.BAD_GATEWAY, "", null, null, null));
+        subject.acquire().release(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "", null, null, null));
+
+        assertEquals("a", lease(subject));
+    }
+
+    private ApiKeyPool pool(List<String> keys, double burst) {
+        return new ApiKeyPool(keys, 0.001, burst, Duration.ofMinutes(5), Duration.ofSeconds(30), meterRegistry,
+                "openweather");
+    }
+
+    private static String lease(ApiKeyPool pool) {
+        ApiKeyPool.Lease lease = pool.acquire();
+        lease.release(null);
+        return lease.getKey();
+    }
+}
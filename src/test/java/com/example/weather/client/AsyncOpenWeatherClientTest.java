@@ -0,0 +1,87 @@
+package com.example.weather.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.example.weather.entity.PincodeGeo;
+import com.example.weather.entity.Weather;
+
+import reactor.core.publisher.Mono;
+
+public class AsyncOpenWeatherClientTest {
+
+    private final AtomicReference<String> requestedUrl = new AtomicReference<>();
+
+    private final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+
+    private AsyncOpenWeatherClient subjectRespondingWith(HttpStatus status, String body) {
+        WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> {
+            requestedUrl.set(request.url().toString());
+            return Mono.just(ClientResponse.create(status)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body(body)
+                    .build());
+        });
+        return new AsyncOpenWeatherClient(builder, "http://localhost:8089", "someAppId");
+    }
+
+    private LocalDate getStubDate() {
+        return LocalDate.parse("05-06-2023", dateTimeFormatter);
+    }
+
+    @Test
+    public void fetchWeather_whenSuccessfulNetworkCall_thenCompletesWithWeather() throws Exception {
+        LocalDate date = getStubDate();
+        AsyncOpenWeatherClient subject = subjectRespondingWith(HttpStatus.OK,
+                "{\"weather\":[{\"id\":800,\"main\":\"Clear\",\"description\":\"clear sky\",\"icon\":\"01d\"}],"
+                        + "\"main\":{\"temp\":313.48},\"name\":\"Nābha\",\"cod\":200}");
+
+        Weather actualWeather = subject.fetchWeather(0.0, 0.0, date).get();
+
+        long unixTimestamp = date.atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+        assertEquals("http://localhost:8089/data/2.5/weather?lat=0.0&lon=0.0&appid=someAppId&dt=" + unixTimestamp,
+                requestedUrl.get());
+        assertEquals(date, actualWeather.getDate());
+        assertEquals(313.48, actualWeather.getTemperature());
+        assertEquals("clear sky", actualWeather.getDescription());
+        assertEquals("Nābha", actualWeather.getPlace());
+    }
+
+    @Test
+    public void fetchPincode_whenSuccessfulNetworkCall_thenCompletesWithPincodeGeo() throws Exception {
+        AsyncOpenWeatherClient subject = subjectRespondingWith(HttpStatus.OK,
+                "{\"zip\":\"147001\",\"lat\":30.37,\"lon\":76.15}");
+
+        PincodeGeo actualPincode = subject.fetchPincodeGeo(147001).get();
+
+        assertEquals("http://localhost:8089/geo/1.0/zip?zip=147001,in&appid=someAppId", requestedUrl.get());
+        assertEquals(147001, actualPincode.getPincode());
+        assertEquals(30.37, actualPincode.getLatitude());
+        assertEquals(76.15, actualPincode.getLongitude());
+    }
+
+    @Test
+    public void fetchPincode_whenHTTP4xx_thenCompletesWithRestClientException() {
+        AsyncOpenWeatherClient subject = subjectRespondingWith(HttpStatus.NOT_FOUND,
+                "{\"cod\":\"404\",\"message\":\"not found\"}");
+
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> subject.fetchPincodeGeo(1234567).get());
+
+        assertTrue(exception.getCause() instanceof RestClientException);
+        assertTrue(exception.getCause().getMessage().contains("Not Found"));
+    }
+}
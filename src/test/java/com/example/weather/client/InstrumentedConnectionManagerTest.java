@@ -0,0 +1,57 @@
+package com.example.weather.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.util.EntityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class InstrumentedConnectionManagerTest {
+
+    private HttpServer server;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void requestConnection_whenSequentialRequests_thenSecondLeaseReusesConnection() throws Exception {
+        InstrumentedConnectionManager connectionManager = new InstrumentedConnectionManager(meterRegistry, "test");
+        String url = "http://localhost:" + server.getAddress().getPort() + "/data/2.5/weather";
+
+        try (CloseableHttpClient httpClient = HttpClients.custom().setConnectionManager(connectionManager).build()) {
+            for (int i = 0; i < 3; i++) {
+                EntityUtils.consume(httpClient.execute(new HttpGet(url)).getEntity());
+            }
+        }
+
+        assertEquals(1, meterRegistry.get("http.client.pool.lease").tag("connection", "new").timer().count());
+        assertEquals(2, meterRegistry.get("http.client.pool.lease").tag("connection", "reused").timer().count());
+    }
+}
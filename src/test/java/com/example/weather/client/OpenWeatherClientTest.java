@@ -10,15 +10,21 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
 import com.example.weather.entity.PincodeGeo;
 import com.example.weather.entity.Weather;
 import com.example.weather.response.Description;
+import com.example.weather.response.ForecastApiResponse;
+import com.example.weather.response.ForecastCity;
+import com.example.weather.response.ForecastItem;
 import com.example.weather.response.GeocodingApiResponse;
 import com.example.weather.response.Temperature;
 import com.example.weather.response.WeatherApiResponse;
@@ -26,6 +32,10 @@ import com.example.weather.response.WeatherApiResponse;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
 
 @ExtendWith(SpringExtension.class)
 public class OpenWeatherClientTest {
@@ -187,4 +197,71 @@ public class OpenWeatherClientTest {
 
         assertTrue(actualMessage.contains(expectedMessage));
     }
+
+    @Test
+    public void fetchWeather_whenStreamingParser_thenReturnsWeatherObject() throws Exception {
+        RestTemplate realRestTemplate = new RestTemplate();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(realRestTemplate).build();
+        OpenWeatherClient streamingSubject = new OpenWeatherClient(realRestTemplate, "http://localhost:8089", "someAppId", true);
+        LocalDate date = this.getStubDate();
+
+        long unixTimestamp = date.atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+        server.expect(requestTo("http://localhost:8089/data/2.5/weather?lat=0.0&lon=0.0&appid=someAppId&dt=" + unixTimestamp))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess("{\"weather\":[{\"description\":\"clear sky\"}],\"main\":{\"temp\":123.0},\"name\":\"City Name\"}",
+                        MediaType.APPLICATION_JSON));
+
+        var actualWeather = streamingSubject.fetchWeather(this.getStubLatitude(), this.getStubLongitude(), date);
+
+        Weather expectedWeather = this.getStubWeather();
+        assertEquals(expectedWeather.getDate(), actualWeather.getDate());
+        assertEquals(expectedWeather.getDescription(), actualWeather.getDescription());
+        assertEquals(expectedWeather.getPlace(), actualWeather.getPlace());
+        assertEquals(expectedWeather.getTemperature(), actualWeather.getTemperature());
+        server.verify();
+    }
+
+    @Test
+    public void fetchPincode_whenStreamingParserAndHTTP4xx_thenThrowsRestClientException() throws Exception {
+        RestTemplate realRestTemplate = new RestTemplate();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(realRestTemplate).build();
+        OpenWeatherClient streamingSubject = new OpenWeatherClient(realRestTemplate, "http://localhost:8089", "someAppId", true);
+        int pincode = this.getStubPincode();
+
+        server.expect(requestTo("http://localhost:8089/geo/1.0/zip?zip=" + pincode + ",in&appid=someAppId"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND));
+
+        Exception exception = assertThrows(RestClientException.class, () -> {
+            streamingSubject.fetchPincodeGeo(pincode);
+        });
+
+        assertTrue(exception.getMessage().contains("Not Found"));
+    }
+
+    @Test
+    public void fetchForecast_whenSuccessfulNetworkCall_thenOneWeatherPerLocalDate() throws Exception {
+        // 2023-06-05T00:00Z, 3-hourly; IST is UTC+05:30
+        long start = 1685923200L;
+        List<ForecastItem> items = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            Description description = new Description();
+            description.setDescription("entry " + i);
+            items.add(new ForecastItem(start + i * 3 * 3600L, new Temperature(300 + i), List.of(description)));
+        }
+        ForecastApiResponse response = new ForecastApiResponse(items, new ForecastCity("Nābha", 19800));
+        String url = "http://localhost:8089/data/2.5/forecast?lat=" + getStubLatitude() + "&lon="
+                + getStubLongitude() + "&appid=someAppId";
+        Mockito.when(restTemplate.getForEntity(url, ForecastApiResponse.class))
+                .thenReturn(new ResponseEntity<ForecastApiResponse>(response, HttpStatus.OK));
+
+        List<Weather> forecast = subject.fetchForecast(getStubLatitude(), getStubLongitude());
+
+        assertEquals(2, forecast.size());
+        assertEquals(getStubDate(), forecast.get(0).getDate());
+        // 06:30Z is 12:00 in IST
+        assertEquals(302.0, forecast.get(0).getTemperature());
+        assertEquals("entry 2", forecast.get(0).getDescription());
+        assertEquals("Nābha", forecast.get(0).getPlace());
+        assertEquals(getStubDate().plusDays(1), forecast.get(1).getDate());
+    }
 }
@@ -0,0 +1,67 @@
+package com.example.weather.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClientException;
+
+import com.example.weather.entity.PincodeGeo;
+import com.example.weather.entity.Weather;
+
+public class OpenWeatherResponseParserTest {
+
+    private final OpenWeatherResponseParser subject = new OpenWeatherResponseParser();
+
+    private final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+
+    private LocalDate getStubDate() {
+        return LocalDate.parse("05-06-2023", dateTimeFormatter);
+    }
+
+    @Test
+    void parseWeather_whenFullPayload_thenKeepsOnlyNeededFields() throws Exception {
+        Weather actualWeather;
+        try (InputStream body = getClass().getResourceAsStream("/openweather/weather.json")) {
+            actualWeather = subject.parseWeather(body, getStubDate());
+        }
+
+        assertEquals(getStubDate(), actualWeather.getDate());
+        assertEquals(313.48, actualWeather.getTemperature());
+        assertEquals("clear sky", actualWeather.getDescription());
+        assertEquals("Nābha", actualWeather.getPlace());
+        assertNull(actualWeather.getPincode());
+    }
+
+    @Test
+    void parseWeather_whenFieldsMissing_thenLeavesDefaults() {
+        Weather actualWeather = subject.parseWeather("{\"weather\":[],\"cod\":200}".getBytes(StandardCharsets.UTF_8),
+                getStubDate());
+
+        assertEquals(0, actualWeather.getTemperature());
+        assertNull(actualWeather.getDescription());
+        assertNull(actualWeather.getPlace());
+    }
+
+    @Test
+    void parsePincodeGeo_whenFullPayload_thenReturnsCoordinates() throws Exception {
+        PincodeGeo actualPincodeGeo;
+        try (InputStream body = getClass().getResourceAsStream("/openweather/geo.json")) {
+            actualPincodeGeo = subject.parsePincodeGeo(body, 147001);
+        }
+
+        assertEquals(147001, actualPincodeGeo.getPincode());
+        assertEquals(30.3398, actualPincodeGeo.getLatitude());
+        assertEquals(76.3869, actualPincodeGeo.getLongitude());
+    }
+
+    @Test
+    void parsePincodeGeo_whenMalformed_thenThrowsRestClientException() {
+        assertThrows(RestClientException.class,
+                () -> subject.parsePincodeGeo("{\"lat\":".getBytes(StandardCharsets.UTF_8), 147001));
+    }
+}
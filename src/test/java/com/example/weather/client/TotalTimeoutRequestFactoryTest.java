@@ -0,0 +1,83 @@
+package com.example.weather.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import com.sun.net.httpserver.HttpServer;
+
+public class TotalTimeoutRequestFactoryTest {
+
+    private HttpServer server;
+
+    private final CloseableHttpClient httpClient = HttpClients.createDefault();
+
+    private final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1);
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        scheduler.setRemoveOnCancelPolicy(true);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            if (exchange.getRequestURI().getPath().equals("/slow")) {
+                try {
+                    Thread.sleep(2000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        server.stop(0);
+        scheduler.shutdownNow();
+        httpClient.close();
+    }
+
+    @Test
+    void execute_whenExchangeCompletes_thenAbortTaskCancelled() {
+        RestTemplate restTemplate = new RestTemplate(
+                new TotalTimeoutRequestFactory(httpClient, Duration.ofSeconds(8), scheduler));
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("{}", restTemplate.getForObject(url("/data/2.5/weather"), String.class));
+        }
+
+        assertTrue(scheduler.getQueue().isEmpty());
+    }
+
+    @Test
+    void execute_whenDeadlinePasses_thenRequestAborted() {
+        RestTemplate restTemplate = new RestTemplate(
+                new TotalTimeoutRequestFactory(httpClient, Duration.ofMillis(200), scheduler));
+
+        assertThrows(ResourceAccessException.class, () -> restTemplate.getForObject(url("/slow"), String.class));
+        assertTrue(scheduler.getQueue().isEmpty());
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + server.getAddress().getPort() + path;
+    }
+}
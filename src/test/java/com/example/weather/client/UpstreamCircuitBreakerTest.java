@@ -0,0 +1,101 @@
+package com.example.weather.client;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class UpstreamCircuitBreakerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final UpstreamCircuitBreaker subject = new UpstreamCircuitBreaker(10, 4, 0.5, Duration.ofSeconds(1),
+            Duration.ofMillis(100), 2, meterRegistry, "openweather");
+
+    @Test
+    void record_whenFailureRateReached_thenOpensAndFailsFast() {
+        call(null);
+        call(null);
+        call(HttpServerErrorException.create(HttpStatus.BAD_GATEWAY, "", null, null, null));
+        assertEquals(UpstreamCircuitBreaker.State.CLOSED, subject.getState());
+
+        call(new ResourceAccessException("Read timed out"));
+
+        assertEquals(UpstreamCircuitBreaker.State.OPEN, subject.getState());
+        assertThrows(UpstreamUnavailableException.class, subject::acquirePermission);
+        assertEquals(1.0, meterRegistry.get("upstream.circuit.rejected").counter().count());
+    }
+
+    @Test
+    void record_whenClientErrors_thenStaysClosed() {
+        for (int i = 0; i < 10; i++) {
+            call(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "", null, null, null));
+        }
+
+        assertEquals(UpstreamCircuitBreaker.State.CLOSED, subject.getState());
+    }
+
+    @Test
+    void record_whenCallsSlow_thenOpens() {
+        for (int i = 0; i < 4; i++) {
+            subject.acquirePermission();
+            subject.record(TimeUnit.SECONDS.toNanos(2), null);
+        }
+
+        assertEquals(UpstreamCircuitBreaker.State.OPEN, subject.getState());
+    }
+
+    @Test
+    void acquirePermission_whenOpenDurationPassedAndTrialsSucceed_thenCloses() throws Exception {
+        trip();
+        Thread.sleep(150);
+
+        subject.acquirePermission();
+        subject.acquirePermission();
+        assertEquals(UpstreamCircuitBreaker.State.HALF_OPEN, subject.getState());
+        // only half-open-calls trials at a time
+        assertThrows(UpstreamUnavailableException.class, subject::acquirePermission);
+
+        subject.record(FAST, null);
+        subject.record(FAST, null);
+
+        assertEquals(UpstreamCircuitBreaker.State.CLOSED, subject.getState());
+        assertDoesNotThrow(subject::acquirePermission);
+    }
+
+    @Test
+    void record_whenTrialFails_thenOpensAgain() throws Exception {
+        trip();
+        Thread.sleep(150);
+
+        subject.acquirePermission();
+        subject.record(FAST, HttpServerErrorException.create(HttpStatus.SERVICE_UNAVAILABLE, "", null, null, null));
+
+        assertEquals(UpstreamCircuitBreaker.State.OPEN, subject.getState());
+        assertThrows(UpstreamUnavailableException.class, subject::acquirePermission);
+    }
+
+    private void trip() {
+        for (int i = 0; i < 4; i++) {
+            call(new ResourceAccessException("Connection refused"));
+        }
+        assertEquals(UpstreamCircuitBreaker.State.OPEN, subject.getState());
+    }
+
+    private void call(Throwable failure) {
+        subject.acquirePermission();
+        subject.record(FAST, failure);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.weather.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class UpstreamHedgerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void call_whenAnsweredBeforeDelay_thenNoHedge() {
+        UpstreamHedger subject = hedger(1, 10);
+        AtomicInteger calls = new AtomicInteger();
+
+        String actual = subject.call("weather", () -> "clear sky" + calls.incrementAndGet());
+
+        assertEquals("clear sky1", actual);
+        assertEquals(1, calls.get());
+        assertEquals(0.0, count("upstream.hedge.sent"));
+    }
+
+    @Test
+    void call_whenPrimarySlow_thenHedgeSentAndWins() {
+        UpstreamHedger subject = hedger(1, 10);
+        AtomicInteger calls = new AtomicInteger();
+
+        String actual = subject.call("weather", () -> {
+            if (calls.incrementAndGet() == 1) {
+                awaitRelease();
+                return "primary";
+            }
+            return "hedge";
+        });
+
+        assertEquals("hedge", actual);
+        assertEquals(1.0, count("upstream.hedge.sent"));
+        assertEquals(1.0, count("upstream.hedge.won"));
+    }
+
+    @Test
+    void call_whenBudgetSpent_thenWaitsForPrimary() throws Exception {
+        UpstreamHedger subject = hedger(0, 0);
+        AtomicInteger calls = new AtomicInteger();
+
+        String actual = subject.call("weather", () -> {
+            calls.incrementAndGet();
+            sleep(150);
+            return "primary";
+        });
+
+        assertEquals("primary", actual);
+        assertEquals(1, calls.get());
+        assertEquals(1.0, meterRegistry.get("upstream.hedge.skipped").tag("reason", "budget").counter().count());
+    }
+
+    @Test
+    void call_whenPrimaryFailsBeforeDelay_thenFailureWithoutHedge() {
+        UpstreamHedger subject = hedger(1, 10);
+
+        assertThrows(ResourceAccessException.class, () -> subject.call("weather", () -> {
+            throw new ResourceAccessException("Connection refused");
+        }));
+        assertEquals(0.0, count("upstream.hedge.sent"));
+    }
+
+    @Test
+    void call_whenBothAttemptsFail_thenPrimaryFailure() {
+        UpstreamHedger subject = hedger(1, 10);
+        AtomicInteger calls = new AtomicInteger();
+
+        RestClientException exception = assertThrows(RestClientException.class, () -> subject.call("weather", () -> {
+            int attempt = calls.incrementAndGet();
+            sleep(attempt == 1 ? 150 : 0);
+            throw new RestClientException("attempt " + attempt);
+        }));
+
+        assertEquals("attempt 1", exception.getMessage());
+    }
+
+    private UpstreamHedger hedger(double maxExtraLoad, double maxBudget) {
+        return new UpstreamHedger(executor, 0.95, Duration.ofMillis(50), Duration.ofMillis(50), 100, maxExtraLoad,
+                maxBudget, meterRegistry, "openweather");
+    }
+
+    private double count(String meter) {
+        return meterRegistry.get(meter).tag("operation", "weather").counter().count();
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
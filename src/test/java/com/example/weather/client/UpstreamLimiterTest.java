@@ -0,0 +1,136 @@
+package com.example.weather.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class UpstreamLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private UpstreamLimiter subject;
+
+    @AfterEach
+    public void tearDown() {
+        subject.close();
+    }
+
+    @Test
+    void acquire_whenBurstSpent_thenNextPermitWaitsForRefill() throws Exception {
+        subject = limiter(10, 2, 8, 200, Duration.ofSeconds(2));
+
+        subject.acquire().get(1, TimeUnit.SECONDS).release(null);
+        subject.acquire().get(1, TimeUnit.SECONDS).release(null);
+        long started = System.nanoTime();
+        subject.acquire().get(1, TimeUnit.SECONDS).release(null);
+
+        // one token every 100ms
+        assertTrue(System.nanoTime() - started >= TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    void acquire_whenConcurrencyLimitReached_thenWaitsForRelease() throws Exception {
+        subject = limiter(1000, 1000, 2, 200, Duration.ofSeconds(2));
+
+        UpstreamLimiter.Permit first = subject.acquire().get(1, TimeUnit.SECONDS);
+        subject.acquire().get(1, TimeUnit.SECONDS);
+        CompletableFuture<UpstreamLimiter.Permit> third = subject.acquire();
+
+        assertFalse(third.isDone());
+        assertEquals(1, subject.getQueued());
+
+        first.release(null);
+        third.get(1, TimeUnit.SECONDS);
+        assertEquals(2, subject.getInFlight());
+    }
+
+    @Test
+    void release_whenOverloaded_thenLimitBacksOff() throws Exception {
+        subject = limiter(1000, 1000, 8, 200, Duration.ofSeconds(2));
+
+        subject.acquire().get(1, TimeUnit.SECONDS)
+                .release(HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "", null, null, null));
+        assertEquals(6.0, subject.getLimit(), 0.001);
+
+        subject.acquire().get(1, TimeUnit.SECONDS)
+                .release(HttpServerErrorException.create(HttpStatus.BAD_GATEWAY, "", null, null, null));
+        assertEquals(4.5, subject.getLimit(), 0.001);
+    }
+
+    @Test
+    void release_whenFastSuccessOrClientError_thenLimitDoesNotBackOff() throws Exception {
+        subject = limiter(1000, 1000, 4, 200, Duration.ofSeconds(2));
+
+        subject.acquire().get(1, TimeUnit.SECONDS).release(null);
+        assertEquals(4.25, subject.getLimit(), 0.001);
+
+        subject.acquire().get(1, TimeUnit.SECONDS)
+                .release(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "", null, null, null));
+        assertEquals(4.25, subject.getLimit(), 0.001);
+    }
+
+    @Test
+    void acquire_whenQueueFull_thenRejectedImmediately() throws Exception {
+        subject = limiter(1000, 1000, 2, 1, Duration.ofSeconds(2));
+        subject.acquire().get(1, TimeUnit.SECONDS);
+        subject.acquire().get(1, TimeUnit.SECONDS);
+        subject.acquire();
+
+        CompletableFuture<UpstreamLimiter.Permit> rejected = subject.acquire();
+
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> rejected.get(1, TimeUnit.SECONDS));
+        assertEquals(UpstreamThrottledException.class, exception.getCause().getClass());
+        assertEquals(1.0, rejections("queue-full"));
+    }
+
+    @Test
+    void acquireBlocking_whenNotAdmittedWithinMaxWait_thenThrottled() throws Exception {
+        subject = limiter(1000, 1000, 2, 200, Duration.ofMillis(100));
+        subject.acquire().get(1, TimeUnit.SECONDS);
+        subject.acquire().get(1, TimeUnit.SECONDS);
+
+        assertThrows(UpstreamThrottledException.class, () -> subject.acquireBlocking());
+        assertEquals(1.0, rejections("timeout"));
+        assertEquals(2, subject.getInFlight());
+    }
+
+    @Test
+    void acquire_whenManyCallersRelease_thenNoPermitIsLost() throws Exception {
+        subject = limiter(1000, 1000, 4, 200, Duration.ofSeconds(2));
+        List<CompletableFuture<Void>> calls = new ArrayList<>();
+
+        for (int i = 0; i < 100; i++) {
+            calls.add(subject.acquire().thenAcceptAsync(permit -> permit.release(null)));
+        }
+        CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        assertEquals(0, subject.getInFlight());
+        assertEquals(0, subject.getQueued());
+    }
+
+    private UpstreamLimiter limiter(double permitsPerSecond, double burst, int concurrency, int maxQueued,
+            Duration maxWait) {
+        return new UpstreamLimiter(permitsPerSecond, burst, concurrency, 2, 64, Duration.ofSeconds(1), 0.75,
+                maxQueued, maxWait, meterRegistry, "openweather");
+    }
+
+    private double rejections(String reason) {
+        return meterRegistry.get("upstream.limiter.rejected").tag("reason", reason).counter().count();
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.weather.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+import com.example.weather.entity.Weather;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class WeatherCellCacheTest {
+
+    private static final LocalDate DATE = LocalDate.of(2023, 6, 5);
+
+    private final WeatherCellCache subject = new WeatherCellCache(0.02, Duration.ofMinutes(30), 100,
+            new SimpleMeterRegistry());
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void get_whenNearbyCoordinates_thenOneFetchAtCellCentre() {
+        List<double[]> fetched = new ArrayList<>();
+        WeatherCellCache.Fetcher fetcher = (latitude, longitude) -> {
+            fetched.add(new double[] { latitude, longitude });
+            return weather("Patiala");
+        };
+
+        Weather first = subject.get(30.3311, 76.3809, DATE, fetcher);
+        Weather second = subject.get(30.3392, 76.3851, DATE, fetcher);
+
+        assertEquals(1, fetched.size());
+        assertEquals(30.33, fetched.get(0)[0], 1e-9);
+        assertEquals(76.39, fetched.get(0)[1], 1e-9);
+        assertEquals("Patiala", first.getPlace());
+        assertEquals("Patiala", second.getPlace());
+    }
+
+    @Test
+    void get_whenDifferentCellOrDate_thenSeparateFetches() {
+        AtomicInteger fetches = new AtomicInteger();
+        WeatherCellCache.Fetcher fetcher = (latitude, longitude) -> {
+            fetches.incrementAndGet();
+            return weather("Patiala");
+        };
+
+        subject.get(30.3311, 76.3809, DATE, fetcher);
+        subject.get(30.3611, 76.3809, DATE, fetcher);
+        subject.get(30.3311, 76.3809, DATE.plusDays(1), fetcher);
+
+        assertEquals(3, fetches.get());
+    }
+
+    @Test
+    void get_whenFetchFails_thenNotCached() {
+        assertThrows(ResourceAccessException.class, () -> subject.get(30.3311, 76.3809, DATE, (latitude, longitude) -> {
+            throw new ResourceAccessException("timed out");
+        }));
+
+        Weather actual = subject.get(30.3311, 76.3809, DATE, (latitude, longitude) -> weather("Patiala"));
+
+        assertEquals("Patiala", actual.getPlace());
+    }
+
+    @Test
+    void get_whenCallerModifiesResult_thenCachedCopyUnchanged() {
+        Weather first = subject.get(30.3311, 76.3809, DATE, (latitude, longitude) -> weather("Patiala"));
+        first.setPincode(147001);
+
+        Weather second = subject.get(30.3392, 76.3851, DATE, (latitude, longitude) -> weather("Rajpura"));
+
+        assertNull(second.getPincode());
+        assertEquals("Patiala", second.getPlace());
+    }
+
+    @Test
+    void get_whenConcurrentMissesForSameCell_thenFetchRunsOnce() throws Exception {
+        AtomicInteger fetches = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<Weather>> results = new ArrayList<>();
+
+        for (int i = 0; i < 8; i++) {
+            double offset = i * 0.001;
+            results.add(executor.submit(() -> subject.get(30.3311 + offset, 76.3809, DATE, (latitude, longitude) -> {
+                fetches.incrementAndGet();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return weather("Patiala");
+            })));
+        }
+        while (fetches.get() == 0) {
+            Thread.onSpinWait();
+        }
+        Thread.sleep(100);
+        release.countDown();
+
+        for (Future<Weather> result : results) {
+            assertEquals("Patiala", result.get(5, TimeUnit.SECONDS).getPlace());
+        }
+        assertEquals(1, fetches.get());
+    }
+
+    private static Weather weather(String place) {
+        return new Weather(null, null, place, DATE, 31.5, "clear sky");
+    }
+}
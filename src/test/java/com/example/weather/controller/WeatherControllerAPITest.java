@@ -1,23 +1,38 @@
 package com.example.weather.controller;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.RequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import com.example.weather.cache.WeatherTtlPolicy;
+import com.example.weather.dto.WeatherBatchResult;
 import com.example.weather.entity.Weather;
 import com.example.weather.exception.PincodeNotFoundException;
+import com.example.weather.service.AsyncWeatherService;
+import com.example.weather.service.PincodeValidator;
+import com.example.weather.service.WeatherBatchService;
 import com.example.weather.service.WeatherService;
 
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
@@ -30,6 +45,18 @@ public class WeatherControllerAPITest {
     @MockBean
     private WeatherService weatherService;
 
+    @MockBean
+    private WeatherBatchService weatherBatchService;
+
+    @MockBean
+    private AsyncWeatherService asyncWeatherService;
+
+    @MockBean
+    private PincodeValidator pincodeValidator;
+
+    @MockBean
+    private WeatherTtlPolicy weatherTtlPolicy;
+
     private final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("dd-MM-yyyy");
 
     /**
@@ -82,6 +109,44 @@ public class WeatherControllerAPITest {
 
     }
 
+    @Test
+    public void getWeather_whenPastDate_thenCacheableWithETag() throws Exception {
+        int pincode = this.getStubPincode();
+        LocalDate date = this.getStubDate();
+
+        Mockito.when(weatherService.getWeather(pincode, date)).thenReturn(this.getStubWeather());
+        Mockito.when(weatherTtlPolicy.ttlFor(date)).thenReturn(Duration.ofDays(30));
+
+        mockMvc.perform(get("/api/v1/weather")
+                .param("pincode", String.valueOf(pincode))
+                .param("date", date.format(dateTimeFormatter)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=2592000, public"))
+                .andExpect(header().exists(HttpHeaders.ETAG));
+    }
+
+    @Test
+    public void getWeather_whenIfNoneMatchesETag_thenReturnsNotModified() throws Exception {
+        int pincode = this.getStubPincode();
+        LocalDate date = this.getStubDate();
+
+        Mockito.when(weatherService.getWeather(pincode, date)).thenReturn(this.getStubWeather());
+        Mockito.when(weatherTtlPolicy.ttlFor(date)).thenReturn(Duration.ofDays(30));
+
+        String etag = mockMvc.perform(get("/api/v1/weather")
+                .param("pincode", String.valueOf(pincode))
+                .param("date", date.format(dateTimeFormatter)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/v1/weather")
+                .param("pincode", String.valueOf(pincode))
+                .param("date", date.format(dateTimeFormatter))
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+    }
+
     @Test
     public void getWeather_whenInvalidPincode_thenReturnsNotFound() throws Exception {
         int pincode = 411014;
@@ -97,6 +162,20 @@ public class WeatherControllerAPITest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    public void getWeather_whenPincodeRejected_thenReturnsNotFoundWithoutLookup() throws Exception {
+        int pincode = 12345;
+
+        Mockito.when(pincodeValidator.isRejected(pincode)).thenReturn(true);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/weather")
+                .param("pincode", String.valueOf(pincode))
+                .param("date", "02-03-2023"))
+                .andExpect(status().isNotFound());
+
+        Mockito.verifyNoInteractions(weatherService);
+    }
+
     @Test
     public void getWeather_whenInvalidDate_thenReturnsBadRequest() throws Exception {
         int pincode = 411014;
@@ -108,4 +187,75 @@ public class WeatherControllerAPITest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    public void getWeatherBatch_whenValidInput_thenReturnsResultPerItem() throws Exception {
+        LocalDate date = this.getStubDate();
+        Mockito.when(weatherBatchService.getWeather(anyList())).thenReturn(List.of(
+                WeatherBatchResult.found(this.getStubPincode(), date, this.getStubWeather()),
+                WeatherBatchResult.failed(411014, date, 404, "Provided pincode is invalid.")));
+
+        RequestBuilder request = post("/api/v1/weather/batch")
+                .header("Accept", MediaType.APPLICATION_JSON_VALUE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"pincode\":147001,\"date\":\"05-06-2023\"},{\"pincode\":411014,\"date\":\"05-06-2023\"}]");
+
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value(200))
+                .andExpect(jsonPath("$[0].weather.place").value("Nābha"))
+                .andExpect(jsonPath("$[1].status").value(404))
+                .andExpect(jsonPath("$[1].error").value("Provided pincode is invalid."));
+    }
+
+    @Test
+    public void getWeatherBatch_whenBatchTooLarge_thenReturnsBadRequest() throws Exception {
+        Mockito.when(weatherBatchService.getWeather(anyList()))
+                .thenThrow(new IllegalArgumentException("A batch can hold at most 500 items."));
+
+        mockMvc.perform(post("/api/v1/weather/batch")
+                .header("Accept", MediaType.APPLICATION_JSON_VALUE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void getWeatherAsync_whenValidInput_thenReturnsResponse() throws Exception {
+        int pincode = this.getStubPincode();
+        LocalDate date = this.getStubDate();
+        Weather expectedWeather = this.getStubWeather();
+
+        Mockito.when(asyncWeatherService.getWeather(pincode, date))
+                .thenReturn(CompletableFuture.completedFuture(expectedWeather));
+
+        MvcResult started = mockMvc.perform(get("/api/v1/weather/async")
+                .param("pincode", String.valueOf(pincode))
+                .param("date", date.format(dateTimeFormatter)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(".pincode").value(expectedWeather.getPincode()))
+                .andExpect(jsonPath(".description").value(expectedWeather.getDescription()));
+    }
+
+    @Test
+    public void getWeatherAsync_whenInvalidPincode_thenReturnsNotFound() throws Exception {
+        int pincode = 411014;
+        LocalDate date = LocalDate.parse("02-03-2023", dateTimeFormatter);
+
+        Mockito.when(asyncWeatherService.getWeather(pincode, date))
+                .thenReturn(CompletableFuture.failedFuture(new PincodeNotFoundException("Provided pincode is invalid.")));
+
+        MvcResult started = mockMvc.perform(get("/api/v1/weather/async")
+                .param("pincode", String.valueOf(pincode))
+                .param("date", date.format(dateTimeFormatter)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isNotFound());
+    }
+
 }
@@ -3,6 +3,7 @@ package com.example.weather.controller;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.verify;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 
@@ -12,13 +13,17 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.example.weather.cache.WeatherTtlPolicy;
 import com.example.weather.entity.Weather;
 import com.example.weather.exception.PincodeNotFoundException;
 import com.example.weather.exception.WeatherNotFoundException;
+import com.example.weather.exception.WeatherUnavailableException;
+import com.example.weather.service.PincodeValidator;
 import com.example.weather.service.WeatherService;
 
 @SpringBootTest
@@ -27,6 +32,12 @@ public class WeatherControllerTest {
     @Mock
     private WeatherService weatherService;
 
+    @Mock
+    private PincodeValidator pincodeValidator;
+
+    @Mock
+    private WeatherTtlPolicy weatherTtlPolicy;
+
     @InjectMocks
     private WeatherController weatherController;
 
@@ -104,4 +115,60 @@ public class WeatherControllerTest {
 
         assertTrue(actualMessage.contains(expectedMessage));
     }
+
+    @Test
+    void getWeather_whenServiceReturnsStaleWeather_thenWarningHeader() throws Exception {
+        int pincode = this.getStubPincode();
+        LocalDate date = this.getStubDate();
+        Weather staleWeather = getStubWeather();
+        staleWeather.setStale(true);
+        Mockito.when(weatherService.getWeather(pincode, date)).thenReturn(staleWeather);
+
+        ResponseEntity<Weather> actualWeatherResponse = weatherController.getWeather(pincode, date);
+
+        Assertions.assertEquals(HttpStatus.OK, actualWeatherResponse.getStatusCode());
+        assertTrue(actualWeatherResponse.getHeaders().getFirst(HttpHeaders.WARNING).startsWith("110"));
+        Assertions.assertEquals("no-cache", actualWeatherResponse.getHeaders().getCacheControl());
+    }
+
+    @Test
+    void getWeather_whenTodayOrForecastDate_thenShortMaxAge() throws Exception {
+        int pincode = this.getStubPincode();
+        LocalDate date = this.getStubDate();
+        Mockito.when(weatherService.getWeather(pincode, date)).thenReturn(getStubWeather());
+        Mockito.when(weatherTtlPolicy.ttlFor(date)).thenReturn(Duration.ofHours(1));
+
+        ResponseEntity<Weather> actualWeatherResponse = weatherController.getWeather(pincode, date);
+
+        Assertions.assertEquals("max-age=3600, public", actualWeatherResponse.getHeaders().getCacheControl());
+    }
+
+    @Test
+    void getWeather_whenContentChanges_thenETagChanges() throws Exception {
+        int pincode = this.getStubPincode();
+        LocalDate date = this.getStubDate();
+        Weather updatedWeather = getStubWeather();
+        updatedWeather.setTemperature(301.2);
+        Mockito.when(weatherService.getWeather(pincode, date)).thenReturn(getStubWeather(), getStubWeather(), updatedWeather);
+
+        String first = weatherController.getWeather(pincode, date).getHeaders().getETag();
+        String second = weatherController.getWeather(pincode, date).getHeaders().getETag();
+        String updated = weatherController.getWeather(pincode, date).getHeaders().getETag();
+
+        Assertions.assertEquals(first, second);
+        Assertions.assertNotEquals(first, updated);
+    }
+
+    @Test
+    void getWeather_whenServiceReturnsWeatherUnavailableException_thenThrowsServiceUnavailable() throws Exception {
+        int pincode = this.getStubPincode();
+        LocalDate date = this.getStubDate();
+        Mockito.when(weatherService.getWeather(pincode, date)).thenThrow(WeatherUnavailableException.class);
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> {
+            weatherController.getWeather(pincode, date);
+        });
+
+        Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatus());
+    }
 }
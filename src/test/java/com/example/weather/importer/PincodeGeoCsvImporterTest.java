@@ -0,0 +1,110 @@
+package com.example.weather.importer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.example.weather.importer.PincodeGeoCsvImporter.ImportResult;
+import com.example.weather.repository.PincodeGeoUpsertRepo;
+
+public class PincodeGeoCsvImporterTest {
+
+    @TempDir
+    Path dir;
+
+    private final JdbcTemplate jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+
+    private final List<List<Object[]>> batches = new ArrayList<>();
+
+    private PincodeGeoCsvImporter importer;
+
+    @BeforeEach
+    public void setUp() {
+        importer = new PincodeGeoCsvImporter(jdbcTemplate,
+                new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class)), 2);
+        Mockito.when(jdbcTemplate.batchUpdate(eq(PincodeGeoUpsertRepo.UPSERT_SQL), anyList())).thenAnswer(invocation -> {
+            List<Object[]> rows = invocation.getArgument(1);
+            batches.add(new ArrayList<>(rows));
+            return new int[rows.size()];
+        });
+    }
+
+    private Path csv(String... lines) throws IOException {
+        return Files.write(dir.resolve("pincodes.csv"), List.of(lines));
+    }
+
+    @Test
+    void importCsv_whenRowsValid_thenUpsertsInBatchesAndSkipsMalformed() throws Exception {
+        Path csv = csv("pincode,latitude,longitude",
+                "147001,30.37,76.15",
+                "110001,28.63,77.22",
+                "not-a-pincode,1,2",
+                "\"560001\",\"12.97\",\"77.59\"",
+                "",
+                "400001,18.94,72.83");
+        Path checkpoint = dir.resolve("pincodes.csv.checkpoint");
+
+        ImportResult result = importer.importCsv(csv, checkpoint);
+
+        assertEquals(4, result.getImported());
+        assertEquals(1, result.getSkipped());
+        assertEquals(2, batches.size());
+        assertArrayEquals(new Object[] { 560001, 12.97, 77.59 }, batches.get(1).get(0));
+        assertFalse(Files.exists(checkpoint));
+    }
+
+    @Test
+    void importCsv_whenCheckpointPresent_thenResumesAfterIt() throws Exception {
+        Path csv = csv("pincode,latitude,longitude",
+                "147001,30.37,76.15",
+                "110001,28.63,77.22",
+                "560001,12.97,77.59");
+        Path checkpoint = Files.writeString(dir.resolve("pincodes.csv.checkpoint"), "3");
+
+        ImportResult result = importer.importCsv(csv, checkpoint);
+
+        assertEquals(1, result.getImported());
+        assertEquals(3, result.getResumedAfterLine());
+        assertEquals(1, batches.size());
+        assertEquals(560001, batches.get(0).get(0)[0]);
+    }
+
+    @Test
+    void importCsv_whenBatchFails_thenCheckpointKeepsLastCommittedLine() throws Exception {
+        Path csv = csv("pincode,latitude,longitude",
+                "147001,30.37,76.15",
+                "110001,28.63,77.22",
+                "560001,12.97,77.59",
+                "400001,18.94,72.83");
+        Path checkpoint = dir.resolve("pincodes.csv.checkpoint");
+        Mockito.when(jdbcTemplate.batchUpdate(eq(PincodeGeoUpsertRepo.UPSERT_SQL), anyList()))
+                .thenReturn(new int[2])
+                .thenThrow(new DataAccessResourceFailureException("connection lost"));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> importer.importCsv(csv, checkpoint));
+
+        assertEquals("3", Files.readString(checkpoint));
+    }
+
+    @Test
+    void parse_whenCoordinatesOutOfRange_thenRejected() {
+        assertNull(PincodeGeoCsvImporter.parse("147001,95.0,76.15"));
+        assertNull(PincodeGeoCsvImporter.parse("147001,30.37"));
+    }
+}
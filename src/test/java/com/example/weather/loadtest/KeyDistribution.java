@@ -0,0 +1,60 @@
+package com.example.weather.loadtest;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Picks one of {@code size} keys: uniformly, or Zipfian with rank {@code k} drawn with probability
+ * proportional to {@code 1 / k^exponent} (a few hot keys, a long cold tail).
+ */
+class KeyDistribution {
+
+    private final int size;
+    // cumulative probabilities by rank, null when uniform
+    private final double[] cumulative;
+
+    private KeyDistribution(int size, double[] cumulative) {
+        this.size = size;
+        this.cumulative = cumulative;
+    }
+
+    static KeyDistribution uniform(int size) {
+        return new KeyDistribution(size, null);
+    }
+
+    static KeyDistribution zipf(int size, double exponent) {
+        double[] cumulative = new double[size];
+        double sum = 0;
+        for (int rank = 1; rank <= size; rank++) {
+            sum += 1 / Math.pow(rank, exponent);
+            cumulative[rank - 1] = sum;
+        }
+        for (int i = 0; i < size; i++) {
+            cumulative[i] /= sum;
+        }
+        return new KeyDistribution(size, cumulative);
+    }
+
+    static KeyDistribution parse(String name, int size, double zipfExponent) {
+        switch (name) {
+            case "uniform":
+                return uniform(size);
+            case "zipf":
+                return zipf(size, zipfExponent);
+            default:
+                throw new IllegalArgumentException("Unknown key distribution: " + name);
+        }
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    int next(Random random) {
+        if (this.cumulative == null) {
+            return random.nextInt(this.size);
+        }
+        int index = Arrays.binarySearch(this.cumulative, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, this.size - 1);
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.weather.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local stand-in for {@code /geo/1.0/zip} and {@code /data/2.5/weather}. Every response is delayed by
+ * {@code latency} plus up to {@code jitter}, and fails with a 500 with probability {@code errorRate}.
+ * Geocodes are derived from the zip, weather is the recorded {@code openweather/weather.json}.
+ */
+class OpenWeatherStub implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final byte[] weatherPayload;
+    private final Duration latency;
+    private final Duration jitter;
+    private final double errorRate;
+
+    private final LongAdder geoCalls = new LongAdder();
+    private final LongAdder weatherCalls = new LongAdder();
+    private final LongAdder injectedErrors = new LongAdder();
+
+    OpenWeatherStub(Duration latency, Duration jitter, double errorRate) throws IOException {
+        this.latency = latency;
+        this.jitter = jitter;
+        this.errorRate = errorRate;
+        try (InputStream in = OpenWeatherStub.class.getResourceAsStream("/openweather/weather.json")) {
+            this.weatherPayload = in.readAllBytes();
+        }
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        this.server.createContext("/geo/1.0/zip", exchange -> respond(exchange, geoCalls, this::geoPayload));
+        this.server.createContext("/data/2.5/weather", exchange -> respond(exchange, weatherCalls, query -> weatherPayload));
+        this.server.setExecutor(this.executor);
+        this.server.start();
+    }
+
+    String url() {
+        return "http://localhost:" + this.server.getAddress().getPort();
+    }
+
+    long geoCalls() {
+        return this.geoCalls.sum();
+    }
+
+    long weatherCalls() {
+        return this.weatherCalls.sum();
+    }
+
+    long injectedErrors() {
+        return this.injectedErrors.sum();
+    }
+
+    void resetCounters() {
+        this.geoCalls.reset();
+        this.weatherCalls.reset();
+        this.injectedErrors.reset();
+    }
+
+    @Override
+    public void close() {
+        this.server.stop(0);
+        this.executor.shutdownNow();
+    }
+
+    private interface Payload {
+        byte[] forQuery(String query);
+    }
+
+    private void respond(HttpExchange exchange, LongAdder calls, Payload payload) throws IOException {
+        calls.increment();
+        try (exchange) {
+            sleep();
+            if (this.errorRate > 0 && ThreadLocalRandom.current().nextDouble() < this.errorRate) {
+                this.injectedErrors.increment();
+                exchange.sendResponseHeaders(500, -1);
+                return;
+            }
+            byte[] body = payload.forQuery(exchange.getRequestURI().getQuery());
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    // zip=147001,in&appid=... -> a stable location per zip
+    private byte[] geoPayload(String query) {
+        String zip = query.substring(query.indexOf("zip=") + 4, query.indexOf(','));
+        int pincode = Integer.parseInt(zip);
+        double lat = 8 + (pincode % 2_800) / 100.0;
+        double lon = 68 + (pincode % 2_900) / 100.0;
+        return String.format("{\"zip\":\"%s\",\"name\":\"Stub\",\"lat\":%.4f,\"lon\":%.4f,\"country\":\"IN\"}",
+                zip, lat, lon).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void sleep() {
+        long nanos = this.latency.toNanos();
+        if (!this.jitter.isZero()) {
+            nanos += ThreadLocalRandom.current().nextLong(this.jitter.toNanos() + 1);
+        }
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
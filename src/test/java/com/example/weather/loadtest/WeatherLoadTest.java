@@ -0,0 +1,307 @@
+package com.example.weather.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.example.weather.cache.CacheInvalidationPublisher;
+import com.example.weather.cache.HotKeyTracker;
+import com.example.weather.cache.PincodeGeoIndex;
+import com.example.weather.cache.RedisMemoryPolicy;
+import com.example.weather.cache.TwoLevelCacheManager;
+import com.example.weather.cache.WeatherCacheKeys;
+import com.example.weather.cache.WeatherTtlPolicy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Throughput, latency percentiles and cache hit ratio of {@code GET /api/v1/weather} through the full
+ * HTTP stack, with {@link OpenWeatherStub} for OpenWeather, H2 for MySQL and an in-process map for redis.
+ * Excluded from the default build:
+ * <pre>
+ * mvn test -Dgroups=load -Dsurefire.excludedGroups= -Dload.requests=50000 -Dload.concurrency=32 \
+ *     -Dload.pincodes=1000 -Dload.days=30 -Dload.distribution=zipf -Dload.zipf-exponent=1.1 \
+ *     -Dload.stub.latency=80ms -Dload.stub.jitter=40ms -Dload.stub.error-rate=0.01
+ * </pre>
+ * Without {@code load.distribution} both uniform and zipf are run, each against cold caches and tables.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.main.allow-bean-definition-overriding=true",
+        "management.health.redis.enabled=false",
+        "weather.api_secret=load-test",
+        // the stub has no quota, only the adaptive concurrency limit applies
+        "weather.client.limiter.permits-per-second=1000000",
+        "weather.client.limiter.burst=1000000",
+        "weather.refresh-ahead.interval=PT1H" })
+public class WeatherLoadTest {
+
+    private static final DateTimeFormatter DATE_PARAM = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+    private static final int FIRST_PINCODE = 110001;
+
+    private static final int REQUESTS = Integer.getInteger("load.requests", 20_000);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 32);
+    private static final int PINCODES = Integer.getInteger("load.pincodes", 500);
+    private static final int DAYS = Integer.getInteger("load.days", 30);
+    private static final double ZIPF_EXPONENT = Double.parseDouble(System.getProperty("load.zipf-exponent", "1.1"));
+    private static final double ERROR_RATE = Double.parseDouble(System.getProperty("load.stub.error-rate", "0"));
+
+    private static final OpenWeatherStub STUB = startStub();
+
+    @DynamicPropertySource
+    static void openWeatherUrl(DynamicPropertyRegistry registry) {
+        registry.add("weather.url", STUB::url);
+    }
+
+    // redis replaced by an in-process map; nothing here opens a redis connection
+    @TestConfiguration
+    static class InMemoryRedisConfig {
+
+        @Bean
+        public CacheInvalidationPublisher cacheInvalidationPublisher() {
+            return new CacheInvalidationPublisher(null, "load-test") {
+
+                @Override
+                public void publishEvict(String cacheName, String key) {
+                }
+
+                @Override
+                public void publishEvictAll(String cacheName, Collection<String> keys) {
+                }
+
+                @Override
+                public void publishClear(String cacheName) {
+                }
+            };
+        }
+
+        @Bean
+        public TwoLevelCacheManager cacheManager(final CacheInvalidationPublisher cacheInvalidationPublisher,
+                final HotKeyTracker weatherHotKeyTracker, final WeatherTtlPolicy weatherTtlPolicy,
+                final MeterRegistry meterRegistry) {
+            return TwoLevelCacheManager.builder(new ConcurrentMapCacheManager(), cacheInvalidationPublisher)
+                    .localCache(10_000, Duration.ofMinutes(10))
+                    .hotKeyTrackers(Map.of(WeatherCacheKeys.CACHE_NAME, weatherHotKeyTracker))
+                    .ttlPolicies(Map.of(WeatherCacheKeys.CACHE_NAME, weatherTtlPolicy))
+                    .meterRegistry(meterRegistry)
+                    .build();
+        }
+
+        @Bean
+        public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+                final RedisConnectionFactory connectionFactory) {
+            // without listeners the container never subscribes
+            RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+            container.setConnectionFactory(connectionFactory);
+            return container;
+        }
+
+        @Bean
+        public RedisMemoryPolicy redisMemoryPolicy(final RedisConnectionFactory connectionFactory) {
+            return new RedisMemoryPolicy(connectionFactory, "", "");
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TwoLevelCacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PincodeGeoIndex pincodeGeoIndex;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private static OpenWeatherStub startStub() {
+        try {
+            return new OpenWeatherStub(DurationStyle.detectAndParse(System.getProperty("load.stub.latency", "50ms")),
+                    DurationStyle.detectAndParse(System.getProperty("load.stub.jitter", "20ms")), ERROR_RATE);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @AfterAll
+    public static void stopStub() {
+        STUB.close();
+    }
+
+    @BeforeEach
+    public void coldStart() throws InterruptedException {
+        // let write-behind flush what the previous run handed over
+        Thread.sleep(500);
+        jdbcTemplate.update("DELETE FROM weather");
+        jdbcTemplate.update("DELETE FROM pincode_geo");
+        pincodeGeoIndex.reload();
+        cacheManager.getCache(WeatherCacheKeys.CACHE_NAME).clear();
+        STUB.resetCounters();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "uniform", "zipf" })
+    public void getWeatherUnderLoad(String distributionName) throws Exception {
+        String only = System.getProperty("load.distribution");
+        if (only != null && !only.equals(distributionName)) {
+            return;
+        }
+        KeyDistribution distribution = KeyDistribution.parse(distributionName, PINCODES * DAYS, ZIPF_EXPONENT);
+        // past dates, so every fetched entry is cacheable
+        LocalDate firstDate = LocalDate.now().minusDays(DAYS + 1L);
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        double[] lookupsBefore = cacheLookups();
+        ExecutorService clients = Executors.newFixedThreadPool(CONCURRENCY);
+        List<Future<Sample>> samples = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int c = 0; c < CONCURRENCY; c++) {
+            int requests = REQUESTS / CONCURRENCY + (c < REQUESTS % CONCURRENCY ? 1 : 0);
+            long seed = c;
+            samples.add(clients.submit(() -> run(httpClient, distribution, firstDate, requests, new Random(seed))));
+        }
+        Sample total = new Sample(REQUESTS);
+        for (Future<Sample> sample : samples) {
+            total.add(sample.get());
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        clients.shutdown();
+        double[] lookups = cacheLookups();
+        for (int i = 0; i < lookups.length; i++) {
+            lookups[i] -= lookupsBefore[i];
+        }
+
+        report(distributionName, total, seconds, lookups);
+
+        assertEquals(REQUESTS, total.count);
+        total.statuses.forEach((status, count) -> assertTrue(status == 200 || (ERROR_RATE > 0 && status == 404),
+                count + " responses with status " + status));
+    }
+
+    private Sample run(HttpClient httpClient, KeyDistribution distribution, LocalDate firstDate, int requests,
+            Random random) throws Exception {
+        Sample sample = new Sample(requests);
+        for (int i = 0; i < requests; i++) {
+            // spread ranks over pincodes, so hot keys aren't all days of the same pincode
+            int key = (int) ((distribution.next(random) * 7_919L) % distribution.size());
+            int pincode = FIRST_PINCODE + key / DAYS;
+            LocalDate date = firstDate.plusDays(key % DAYS);
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port
+                    + "/api/v1/weather?pincode=" + pincode + "&date=" + date.format(DATE_PARAM)))
+                    .header("Accept", "application/json")
+                    .timeout(Duration.ofSeconds(30))
+                    .build();
+            long begin = System.nanoTime();
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            sample.record(System.nanoTime() - begin, response.statusCode());
+        }
+        return sample;
+    }
+
+    // local, remote and miss counts of the weather cache's single-key lookups
+    private double[] cacheLookups() {
+        String[] outcomes = { "local", "remote", "miss" };
+        double[] counts = new double[outcomes.length];
+        for (int i = 0; i < outcomes.length; i++) {
+            Timer timer = meterRegistry.find("cache.lookup")
+                    .tag("cache", WeatherCacheKeys.CACHE_NAME)
+                    .tag("outcome", outcomes[i])
+                    .timer();
+            counts[i] = timer != null ? timer.count() : 0;
+        }
+        return counts;
+    }
+
+    private void report(String distribution, Sample sample, double seconds, double[] lookups) {
+        long[] latencies = Arrays.copyOf(sample.latencies, sample.count);
+        Arrays.sort(latencies);
+        double allLookups = lookups[0] + lookups[1] + lookups[2];
+        System.out.printf("%n%s: %d requests, %d clients, %d keys (%d pincodes x %d days)%n", distribution, sample.count,
+                CONCURRENCY, PINCODES * DAYS, PINCODES, DAYS);
+        System.out.printf("  throughput      %10.1f req/s%n", sample.count / seconds);
+        System.out.printf("  latency (ms)    p50 %.2f  p90 %.2f  p99 %.2f  p99.9 %.2f  max %.2f%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99),
+                percentile(latencies, 0.999), latencies[latencies.length - 1] / 1e6);
+        System.out.printf("  cache hit ratio %10.3f (local %.0f, remote %.0f, miss %.0f)%n",
+                allLookups == 0 ? 0 : (lookups[0] + lookups[1]) / allLookups, lookups[0], lookups[1], lookups[2]);
+        System.out.printf("  upstream calls  geo %d, weather %d, injected errors %d%n", STUB.geoCalls(),
+                STUB.weatherCalls(), STUB.injectedErrors());
+        System.out.printf("  statuses        %s%n", sample.statuses);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * quantile))] / 1e6;
+    }
+
+    private static final class Sample {
+
+        private long[] latencies;
+        private int count;
+        private final Map<Integer, Integer> statuses = new TreeMap<>();
+
+        Sample(int capacity) {
+            this.latencies = new long[capacity];
+        }
+
+        void record(long latencyNanos, int status) {
+            latencies[count++] = latencyNanos;
+            statuses.merge(status, 1, Integer::sum);
+        }
+
+        void add(Sample other) {
+            if (count + other.count > latencies.length) {
+                latencies = Arrays.copyOf(latencies, count + other.count);
+            }
+            System.arraycopy(other.latencies, 0, latencies, count, other.count);
+            count += other.count;
+            other.statuses.forEach((status, n) -> statuses.merge(status, n, Integer::sum));
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.example.weather.repository;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.AfterEach;
@@ -38,6 +39,23 @@ public class WeatherRepoTest {
         assertEquals(actualWeather.get().getDescription(), expectedWeather.getDescription());
     }
 
+    @Test
+    public void shouldUpsertWithoutDuplicatingPincodeAndDate() {
+        Weather first = this.getStubWeather();
+        Weather second = this.getStubWeather();
+        second.setTemperature(300.15);
+        second.setDescription("light rain");
+
+        subject.upsert(first);
+        subject.upsertAll(List.of(second));
+        Optional<Weather> actualWeather = subject.findByPincodeAndDate(this.getStubPincode(), this.getStubDate());
+
+        assertEquals(1, subject.count());
+        assertTrue(actualWeather.isPresent());
+        assertEquals("light rain", actualWeather.get().getDescription());
+        assertEquals(300.15, actualWeather.get().getTemperature());
+    }
+
     private final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("dd-MM-yyyy");
 
     private LocalDate getStubDate() {
@@ -0,0 +1,107 @@
+package com.example.weather.repository;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Lookup latency of {@link WeatherRepo#findByPincodeAndDate} as the weather table grows.
+ * Excluded from the default build; run against the configured database with
+ * {@code mvn test -Dgroups=volume -Dsurefire.excludedGroups= -Dweather.volume.sizes=10000,100000,1000000}.
+ */
+@Tag("volume")
+@SpringBootTest
+public class WeatherRepoVolumeTest {
+
+    private static final int PINCODES = 20_000;
+    private static final int LOOKUPS = 2_000;
+    private static final int INSERT_BATCH = 5_000;
+    private static final LocalDate FIRST_DATE = LocalDate.of(2000, 1, 1);
+
+    @Autowired
+    private WeatherRepo subject;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM weather");
+    }
+
+    @Test
+    public void lookupLatencyStaysFlatAsTableGrows() {
+        int[] sizes = Arrays.stream(System.getProperty("weather.volume.sizes", "10000,100000,1000000").split(","))
+                .mapToInt(size -> Integer.parseInt(size.trim()))
+                .sorted()
+                .toArray();
+
+        System.out.printf("%12s %12s %12s%n", "rows", "p50 (us)", "p99 (us)");
+        int rows = 0;
+        double smallestP50 = 0;
+        double largestP50 = 0;
+        for (int size : sizes) {
+            rows = fill(rows, size);
+            long[] latencies = measureLookups(rows);
+            double p50 = latencies[latencies.length / 2] / 1_000.0;
+            double p99 = latencies[latencies.length * 99 / 100] / 1_000.0;
+            System.out.printf("%12d %12.1f %12.1f%n", rows, p50, p99);
+            if (smallestP50 == 0) {
+                smallestP50 = p50;
+            }
+            largestP50 = p50;
+        }
+
+        // an index lookup grows with log n; a scan would grow with n
+        assertTrue(largestP50 < smallestP50 * 10,
+                "p50 grew from " + smallestP50 + "us to " + largestP50 + "us");
+    }
+
+    // row i is (110000 + i % PINCODES, FIRST_DATE + i / PINCODES days), so every row is a distinct pair
+    private int fill(int from, int to) {
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+        for (int i = from; i < to; i++) {
+            batch.add(new Object[] { 110000 + i % PINCODES, Date.valueOf(FIRST_DATE.plusDays(i / PINCODES)),
+                    "Nābha", 313.48, "clear sky" });
+            if (batch.size() == INSERT_BATCH) {
+                jdbcTemplate.batchUpdate(WeatherUpsertRepoImpl.UPSERT_SQL, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(WeatherUpsertRepoImpl.UPSERT_SQL, batch);
+        }
+        return to;
+    }
+
+    private long[] measureLookups(int rows) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < LOOKUPS / 4; i++) {
+            lookup(random.nextInt(rows));
+        }
+        long[] latencies = new long[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            int row = random.nextInt(rows);
+            long started = System.nanoTime();
+            assertTrue(lookup(row));
+            latencies[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private boolean lookup(int row) {
+        return subject.findByPincodeAndDate(110000 + row % PINCODES, FIRST_DATE.plusDays(row / PINCODES)).isPresent();
+    }
+}
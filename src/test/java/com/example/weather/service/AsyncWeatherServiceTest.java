@@ -0,0 +1,139 @@
+package com.example.weather.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.web.client.RestClientException;
+
+import com.example.weather.cache.CacheInvalidationPublisher;
+import com.example.weather.cache.PincodeGeoIndex;
+import com.example.weather.cache.TwoLevelCacheManager;
+import com.example.weather.cache.WeatherCacheKeys;
+import com.example.weather.client.AsyncOpenWeatherClient;
+import com.example.weather.entity.PincodeGeo;
+import com.example.weather.entity.Weather;
+import com.example.weather.exception.PincodeNotFoundException;
+import com.example.weather.repository.PincodeRepo;
+import com.example.weather.repository.WeatherRepo;
+
+@ExtendWith(MockitoExtension.class)
+public class AsyncWeatherServiceTest {
+
+    @Mock
+    private AsyncOpenWeatherClient weatherClient;
+
+    @Mock
+    private PincodeRepo pincodeRepo;
+
+    @Mock
+    private WeatherRepo weatherRepo;
+
+    @Mock
+    private CacheInvalidationPublisher invalidationPublisher;
+
+    @Mock
+    private PincodeGeoIndex pincodeGeoIndex;
+
+    @Mock
+    private PincodeValidator pincodeValidator;
+
+    @Mock
+    private WriteBehindPersister writeBehindPersister;
+
+    private TwoLevelCacheManager cacheManager;
+
+    private AsyncWeatherService subject;
+
+    private final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+
+    @BeforeEach
+    public void setUp() {
+        cacheManager = TwoLevelCacheManager.builder(new ConcurrentMapCacheManager(), invalidationPublisher)
+                .localCache(100, Duration.ofMinutes(1))
+                .build();
+        subject = new AsyncWeatherService(weatherRepo, pincodeRepo, weatherClient, cacheManager, Runnable::run,
+                pincodeGeoIndex, pincodeValidator, writeBehindPersister);
+    }
+
+    private int getStubPincode() {
+        return 147001;
+    }
+
+    private LocalDate getStubDate() {
+        return LocalDate.parse("05-06-2023", dateTimeFormatter);
+    }
+
+    private Weather getStubWeather() {
+        Weather stubWeather = new Weather();
+        stubWeather.setPlace("Nābha");
+        stubWeather.setDate(this.getStubDate());
+        stubWeather.setTemperature(313.48);
+        stubWeather.setDescription("clear sky");
+        return stubWeather;
+    }
+
+    @Test
+    void getWeather_whenDataNotPersisted_thenFetchesPersistsAndCaches() throws Exception {
+        int pincode = getStubPincode();
+        LocalDate date = getStubDate();
+        Mockito.when(weatherRepo.findByPincodeAndDate(pincode, date)).thenReturn(Optional.empty());
+        Mockito.when(pincodeRepo.findById(pincode)).thenReturn(Optional.empty());
+        Mockito.when(weatherClient.fetchPincodeGeo(pincode))
+                .thenReturn(CompletableFuture.completedFuture(new PincodeGeo(pincode, 1, 2)));
+        Mockito.when(weatherClient.fetchWeather(1, 2, date))
+                .thenReturn(CompletableFuture.completedFuture(getStubWeather()));
+
+        Weather actualWeather = subject.getWeather(pincode, date).get();
+
+        assertEquals(pincode, actualWeather.getPincode());
+        assertEquals("clear sky", actualWeather.getDescription());
+        verify(writeBehindPersister).saveWeather(actualWeather);
+        verify(writeBehindPersister).savePincodeGeo(any(PincodeGeo.class));
+        assertEquals(actualWeather, cacheManager.getCache(WeatherCacheKeys.CACHE_NAME)
+                .get(WeatherCacheKeys.of(pincode, date)).get());
+    }
+
+    @Test
+    void getWeather_whenCached_thenNoDatabaseOrNetworkCall() throws Exception {
+        int pincode = getStubPincode();
+        LocalDate date = getStubDate();
+        cacheManager.getCache(WeatherCacheKeys.CACHE_NAME).put(WeatherCacheKeys.of(pincode, date), getStubWeather());
+
+        Weather actualWeather = subject.getWeather(pincode, date).get();
+
+        assertEquals("clear sky", actualWeather.getDescription());
+        verify(weatherRepo, never()).findByPincodeAndDate(any(), any());
+    }
+
+    @Test
+    void getWeather_whenInvalidPincode_thenFailsWithPincodeNotFoundException() {
+        int invalidPincode = 1234567;
+        LocalDate date = getStubDate();
+        Mockito.when(weatherRepo.findByPincodeAndDate(invalidPincode, date)).thenReturn(Optional.empty());
+        Mockito.when(pincodeRepo.findById(invalidPincode)).thenReturn(Optional.empty());
+        Mockito.when(weatherClient.fetchPincodeGeo(invalidPincode))
+                .thenReturn(CompletableFuture.failedFuture(new RestClientException("Not Found")));
+
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> subject.getWeather(invalidPincode, date).get());
+
+        assertTrue(exception.getCause() instanceof PincodeNotFoundException);
+        assertEquals("Provided pincode is invalid.", exception.getCause().getMessage());
+    }
+}
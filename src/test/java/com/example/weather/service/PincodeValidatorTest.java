@@ -0,0 +1,69 @@
+package com.example.weather.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import com.example.weather.cache.PincodeGeoIndex;
+
+@ExtendWith(MockitoExtension.class)
+public class PincodeValidatorTest {
+
+    @Mock
+    private PincodeGeoIndex pincodeGeoIndex;
+
+    private PincodeValidator subject;
+
+    @BeforeEach
+    public void setUp() {
+        subject = new PincodeValidator(pincodeGeoIndex, Duration.ofMinutes(5), 100, false);
+    }
+
+    @Test
+    void isRejected_whenNotSixDigits_thenRejected() {
+        assertTrue(subject.isRejected(null));
+        assertTrue(subject.isRejected(12345));
+        assertTrue(subject.isRejected(1234567));
+        assertTrue(subject.isRejected(-147001));
+        assertFalse(subject.isRejected(147001));
+    }
+
+    @Test
+    void recordFailure_whenUpstreamSaysNotFound_thenRejectedUntilIndexed() {
+        subject.recordFailure(999999, new HttpClientErrorException(HttpStatus.NOT_FOUND));
+
+        assertTrue(subject.isRejected(999999));
+
+        Mockito.when(pincodeGeoIndex.contains(999999)).thenReturn(true);
+        assertFalse(subject.isRejected(999999));
+    }
+
+    @Test
+    void recordFailure_whenFailureIsTransient_thenNotRemembered() {
+        subject.recordFailure(999998, new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE));
+        subject.recordFailure(999997, new ResourceAccessException("Read timed out"));
+
+        assertFalse(subject.isRejected(999998));
+        assertFalse(subject.isRejected(999997));
+    }
+
+    @Test
+    void isRejected_whenRejectUnknownAndIndexLoaded_thenUnindexedRejected() {
+        subject = new PincodeValidator(pincodeGeoIndex, Duration.ofMinutes(5), 100, true);
+        Mockito.when(pincodeGeoIndex.contains(147001)).thenReturn(true);
+        Mockito.when(pincodeGeoIndex.size()).thenReturn(1);
+
+        assertFalse(subject.isRejected(147001));
+        assertTrue(subject.isRejected(147002));
+    }
+}
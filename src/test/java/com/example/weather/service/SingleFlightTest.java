@@ -0,0 +1,135 @@
+package com.example.weather.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import com.example.weather.exception.PincodeNotFoundException;
+
+public class SingleFlightTest {
+
+    private final SingleFlight<String, String> subject = new SingleFlight<>();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void execute_whenConcurrentCallsForSameKey_thenLoaderRunsOnce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> subject.execute("147001_2023-06-05", () -> {
+                loads.incrementAndGet();
+                release.await();
+                return "clear sky";
+            })));
+        }
+        // let every caller reach the flight before the leader finishes
+        while (subject.inFlightCount() == 0) {
+            Thread.onSpinWait();
+        }
+        Thread.sleep(100);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertEquals("clear sky", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(0, subject.inFlightCount());
+    }
+
+    @Test
+    void execute_whenLoaderThrows_thenEveryWaiterReceivesException() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+
+        for (int i = 0; i < 4; i++) {
+            results.add(executor.submit(() -> subject.execute("1234567", () -> {
+                release.await();
+                throw new PincodeNotFoundException("Provided pincode is invalid.");
+            })));
+        }
+        while (subject.inFlightCount() == 0) {
+            Thread.onSpinWait();
+        }
+        Thread.sleep(100);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            Exception exception = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertEquals(PincodeNotFoundException.class, exception.getCause().getClass());
+        }
+    }
+
+    @Test
+    void execute_whenPreviousFlightCompleted_thenLoadsAgain() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+
+        subject.execute("147001", () -> "first" + loads.incrementAndGet());
+        String actual = subject.execute("147001", () -> "second" + loads.incrementAndGet());
+
+        assertEquals("second2", actual);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void submit_whenConcurrentCallsForSameKey_thenLoaderRunsOnce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<String> load = new CompletableFuture<>();
+
+        CompletableFuture<String> first = subject.submit("147001_2023-06-05", () -> {
+            loads.incrementAndGet();
+            return load;
+        });
+        CompletableFuture<String> second = subject.submit("147001_2023-06-05", () -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture("rain");
+        });
+        load.complete("clear sky");
+
+        assertEquals("clear sky", first.get(5, TimeUnit.SECONDS));
+        assertEquals("clear sky", second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+        assertEquals(0, subject.inFlightCount());
+    }
+
+    @Test
+    void submit_whenLoaderFails_thenFlightRemovedAndWaitersFail() throws Exception {
+        CompletableFuture<String> load = new CompletableFuture<>();
+
+        CompletableFuture<String> first = subject.submit("1234567", () -> load);
+        CompletableFuture<String> second = subject.submit("1234567", () -> CompletableFuture.completedFuture("unused"));
+        load.completeExceptionally(new PincodeNotFoundException("Provided pincode is invalid."));
+
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+        assertEquals(PincodeNotFoundException.class, exception.getCause().getClass());
+        assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+        assertEquals(0, subject.inFlightCount());
+    }
+
+    @Test
+    void submit_whenLoaderThrows_thenFailedFutureAndNoFlightLeft() {
+        CompletableFuture<String> result = subject.submit("147001", () -> {
+            throw new IllegalStateException("boom");
+        });
+
+        assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertEquals(0, subject.inFlightCount());
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.weather.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.web.client.RestClientException;
+
+import com.example.weather.cache.CacheInvalidationPublisher;
+import com.example.weather.cache.PincodeGeoIndex;
+import com.example.weather.cache.TwoLevelCacheManager;
+import com.example.weather.cache.WeatherCache;
+import com.example.weather.cache.WeatherCacheKeys;
+import com.example.weather.client.OpenWeatherClient;
+import com.example.weather.client.UpstreamThrottledException;
+import com.example.weather.dto.WeatherBatchItem;
+import com.example.weather.dto.WeatherBatchResult;
+import com.example.weather.entity.PincodeGeo;
+import com.example.weather.entity.Weather;
+import com.example.weather.repository.PincodeRepo;
+import com.example.weather.repository.WeatherRepo;
+
+@ExtendWith(MockitoExtension.class)
+public class WeatherBatchServiceTest {
+
+    @Mock
+    private OpenWeatherClient weatherClient;
+
+    @Mock
+    private PincodeRepo pincodeRepo;
+
+    @Mock
+    private WeatherRepo weatherRepo;
+
+    @Mock
+    private CacheInvalidationPublisher invalidationPublisher;
+
+    @Mock
+    private PincodeGeoIndex pincodeGeoIndex;
+
+    @Mock
+    private PincodeValidator pincodeValidator;
+
+    @Mock
+    private WriteBehindPersister writeBehindPersister;
+
+    private TwoLevelCacheManager cacheManager;
+
+    private WeatherBatchService subject;
+
+    private final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+
+    @BeforeEach
+    public void setUp() {
+        cacheManager = TwoLevelCacheManager.builder(new ConcurrentMapCacheManager(), invalidationPublisher)
+                .localCache(100, Duration.ofMinutes(1))
+                .build();
+        subject = new WeatherBatchService(weatherRepo, pincodeRepo, weatherClient, new WeatherCache(cacheManager),
+                Runnable::run, 3, pincodeGeoIndex, pincodeValidator, writeBehindPersister, ZoneOffset.UTC);
+    }
+
+    private LocalDate getStubDate() {
+        return LocalDate.parse("05-06-2023", dateTimeFormatter);
+    }
+
+    private Weather getStubWeather(int pincode) {
+        Weather stubWeather = new Weather();
+        stubWeather.setPincode(pincode);
+        stubWeather.setPlace("Nābha");
+        stubWeather.setDate(this.getStubDate());
+        stubWeather.setTemperature(313.48);
+        stubWeather.setDescription("clear sky");
+        return stubWeather;
+    }
+
+    @Test
+    void getWeather_whenMixOfCachedPersistedAndMissing_thenOnlyMissesGoUpstream() {
+        LocalDate date = getStubDate();
+        cacheManager.getCache(WeatherCacheKeys.CACHE_NAME).put(WeatherCacheKeys.of(147001, date), getStubWeather(147001));
+        Mockito.when(weatherRepo.findByPincodeInAndDateIn(any(), any())).thenReturn(List.of(getStubWeather(147002)));
+        Mockito.when(pincodeRepo.findAllById(any())).thenReturn(List.of(new PincodeGeo(147003, 1, 2)));
+        Mockito.when(weatherClient.fetchWeather(1, 2, date)).thenReturn(getStubWeather(0));
+
+        List<WeatherBatchResult> results = subject.getWeather(List.of(
+                new WeatherBatchItem(147001, date),
+                new WeatherBatchItem(147002, date),
+                new WeatherBatchItem(147003, date)));
+
+        assertEquals(3, results.size());
+        results.forEach(result -> assertEquals(200, result.getStatus()));
+        assertEquals(147003, results.get(2).getWeather().getPincode());
+        verify(weatherClient, Mockito.times(1)).fetchWeather(anyDouble(), anyDouble(), any());
+        verify(weatherClient, never()).fetchPincodeGeo(any());
+        assertEquals(147003, ((Weather) cacheManager.getCache(WeatherCacheKeys.CACHE_NAME)
+                .get(WeatherCacheKeys.of(147003, date)).get()).getPincode());
+    }
+
+    @Test
+    void getWeather_whenSomeItemsFail_thenReportsFailuresPerItem() {
+        LocalDate date = getStubDate();
+        Mockito.when(weatherRepo.findByPincodeInAndDateIn(any(), any())).thenReturn(Collections.emptyList());
+        Mockito.when(pincodeRepo.findAllById(any())).thenReturn(List.of(new PincodeGeo(147001, 1, 2)));
+        Mockito.when(weatherClient.fetchPincodeGeo(1234567)).thenThrow(RestClientException.class);
+        Mockito.when(weatherClient.fetchWeather(1, 2, date)).thenThrow(RestClientException.class);
+
+        List<WeatherBatchResult> results = subject.getWeather(List.of(
+                new WeatherBatchItem(1234567, date),
+                new WeatherBatchItem(147001, date)));
+
+        assertEquals(404, results.get(0).getStatus());
+        assertEquals("Provided pincode is invalid.", results.get(0).getError());
+        assertEquals(404, results.get(1).getStatus());
+        assertEquals("Weather couldn't be fetched for the provided pincode or date.", results.get(1).getError());
+        assertNull(results.get(1).getWeather());
+    }
+
+    @Test
+    void getWeather_whenUpstreamThrottled_thenReportsUnavailablePerItem() {
+        LocalDate date = getStubDate();
+        Mockito.when(weatherRepo.findByPincodeInAndDateIn(any(), any())).thenReturn(Collections.emptyList());
+        Mockito.when(pincodeRepo.findAllById(any())).thenReturn(List.of(new PincodeGeo(147001, 1, 2)));
+        Mockito.when(weatherClient.fetchPincodeGeo(147002)).thenThrow(new UpstreamThrottledException("queue full"));
+        Mockito.when(weatherClient.fetchWeather(1, 2, date)).thenThrow(new UpstreamThrottledException("queue full"));
+
+        List<WeatherBatchResult> results = subject.getWeather(List.of(
+                new WeatherBatchItem(147002, date),
+                new WeatherBatchItem(147001, date)));
+
+        assertEquals(503, results.get(0).getStatus());
+        assertEquals(503, results.get(1).getStatus());
+        assertEquals("Weather service is temporarily unavailable.", results.get(1).getError());
+    }
+
+    @Test
+    void getWeather_whenBatchTooLarge_thenThrowsIllegalArgumentException() {
+        LocalDate date = getStubDate();
+
+        assertThrows(IllegalArgumentException.class, () -> subject.getWeather(List.of(
+                new WeatherBatchItem(147001, date),
+                new WeatherBatchItem(147002, date),
+                new WeatherBatchItem(147003, date),
+                new WeatherBatchItem(147004, date))));
+    }
+
+    @Test
+    void getRange_whenDaysMissingFromToday_thenOneForecastCallFillsOnlyThem() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        Weather yesterday = getStubWeather(147001);
+        yesterday.setDate(today.minusDays(1));
+        Weather observed = getStubWeather(147001);
+        observed.setDate(today);
+        observed.setDescription("haze");
+        Mockito.when(weatherRepo.findByPincodeAndDateBetween(147001, today.minusDays(1), today.plusDays(1)))
+                .thenReturn(List.of(yesterday, observed));
+        Mockito.when(pincodeRepo.findAllById(any())).thenReturn(List.of(new PincodeGeo(147001, 1, 2)));
+        List<Weather> forecast = new ArrayList<>();
+        for (int day = 0; day < 6; day++) {
+            Weather weather = getStubWeather(0);
+            weather.setDate(today.plusDays(day));
+            forecast.add(weather);
+        }
+        Mockito.when(weatherClient.fetchForecast(1, 2)).thenReturn(forecast);
+
+        List<WeatherBatchResult> results = subject.getRange(147001, today.minusDays(1), today.plusDays(1));
+
+        assertEquals(3, results.size());
+        results.forEach(result -> assertEquals(200, result.getStatus()));
+        assertEquals("haze", results.get(1).getWeather().getDescription());
+        assertEquals(today.plusDays(1), results.get(2).getDate());
+        verify(weatherClient, never()).fetchWeather(anyDouble(), anyDouble(), any());
+        // persisted days aren't overwritten and days past the range aren't kept
+        verify(writeBehindPersister).saveWeathers(List.of(forecast.get(1)));
+        Cache cache = cacheManager.getCache(WeatherCacheKeys.CACHE_NAME);
+        assertEquals("haze", ((Weather) cache.get(WeatherCacheKeys.of(147001, today)).get()).getDescription());
+        assertNull(cache.get(WeatherCacheKeys.of(147001, today.plusDays(5))));
+    }
+
+    @Test
+    void getRange_whenOnlyPastDaysMissing_thenFetchedPerDay() {
+        LocalDate date = getStubDate();
+        Mockito.when(weatherRepo.findByPincodeAndDateBetween(147001, date, date.plusDays(1)))
+                .thenReturn(Collections.emptyList());
+        Mockito.when(pincodeRepo.findAllById(any())).thenReturn(List.of(new PincodeGeo(147001, 1, 2)));
+        Mockito.when(weatherClient.fetchWeather(Mockito.eq(1.0), Mockito.eq(2.0), any()))
+                .thenAnswer(invocation -> {
+                    Weather weather = getStubWeather(0);
+                    weather.setDate(invocation.getArgument(2));
+                    return weather;
+                });
+
+        List<WeatherBatchResult> results = subject.getRange(147001, date, date.plusDays(1));
+
+        assertEquals(List.of(200, 200), List.of(results.get(0).getStatus(), results.get(1).getStatus()));
+        assertEquals(date.plusDays(1), results.get(1).getWeather().getDate());
+        verify(weatherClient, never()).fetchForecast(anyDouble(), anyDouble());
+    }
+
+    @Test
+    void getRange_whenRangeTooLong_thenThrowsIllegalArgumentException() {
+        LocalDate date = getStubDate();
+
+        assertThrows(IllegalArgumentException.class, () -> subject.getRange(147001, date, date.plusDays(3)));
+        assertThrows(IllegalArgumentException.class, () -> subject.getRange(147001, date, date.minusDays(1)));
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.weather.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import com.example.weather.cache.BatchCacheOperations;
+import com.example.weather.cache.CacheInvalidationPublisher;
+import com.example.weather.cache.HotKeyTracker;
+import com.example.weather.cache.PincodeGeoIndex;
+import com.example.weather.cache.TwoLevelCacheManager;
+import com.example.weather.cache.WeatherCacheKeys;
+import com.example.weather.client.OpenWeatherClient;
+import com.example.weather.entity.PincodeGeo;
+import com.example.weather.entity.Weather;
+import com.example.weather.repository.PincodeRepo;
+
+@ExtendWith(MockitoExtension.class)
+public class WeatherRefreshAheadTest {
+
+    @Mock
+    private OpenWeatherClient weatherClient;
+
+    @Mock
+    private PincodeRepo pincodeRepo;
+
+    @Mock
+    private PincodeGeoIndex pincodeGeoIndex;
+
+    @Mock
+    private WriteBehindPersister writeBehindPersister;
+
+    @Mock
+    private BatchCacheOperations batchOperations;
+
+    @Mock
+    private CacheInvalidationPublisher invalidationPublisher;
+
+    private final HotKeyTracker hotKeyTracker = new HotKeyTracker(100);
+
+    private TwoLevelCacheManager cacheManager;
+
+    private WeatherRefreshAhead subject;
+
+    private final LocalDate date = LocalDate.of(2023, 6, 5);
+
+    @BeforeEach
+    public void setUp() {
+        cacheManager = TwoLevelCacheManager.builder(new ConcurrentMapCacheManager(), invalidationPublisher)
+                .localCache(100, Duration.ofMinutes(1))
+                .batchOperations(batchOperations)
+                .hotKeyTrackers(Map.of(WeatherCacheKeys.CACHE_NAME, hotKeyTracker))
+                .build();
+        subject = new WeatherRefreshAhead(cacheManager, hotKeyTracker, weatherClient, pincodeGeoIndex, pincodeRepo,
+                writeBehindPersister, Runnable::run, 10, 3, Duration.ofMinutes(2), 1);
+    }
+
+    private void read(int pincode, int times) {
+        for (int i = 0; i < times; i++) {
+            cacheManager.getCache(WeatherCacheKeys.CACHE_NAME).get(WeatherCacheKeys.of(pincode, date));
+        }
+    }
+
+    private Weather getStubWeather() {
+        Weather stubWeather = new Weather();
+        stubWeather.setDate(date);
+        stubWeather.setTemperature(300.15);
+        stubWeather.setDescription("light rain");
+        return stubWeather;
+    }
+
+    @Test
+    void refresh_whenHotKeysCloseToExpiry_thenRefetchesHottestWithinBudget() {
+        read(147001, 5);
+        read(110001, 8);
+        read(560001, 6);
+        Mockito.when(batchOperations.getRemainingTtls(eq(WeatherCacheKeys.CACHE_NAME), anyCollection()))
+                .thenReturn(Map.of(
+                        WeatherCacheKeys.of(110001, date), Duration.ofHours(5),
+                        WeatherCacheKeys.of(560001, date), Duration.ofSeconds(40),
+                        WeatherCacheKeys.of(147001, date), Duration.ofSeconds(10)));
+        Mockito.when(pincodeGeoIndex.find(560001)).thenReturn(Optional.of(new PincodeGeo(560001, 12.97, 77.59)));
+        Mockito.when(weatherClient.fetchWeather(12.97, 77.59, date)).thenReturn(getStubWeather());
+
+        int refreshed = subject.refresh();
+
+        assertEquals(1, refreshed);
+        verify(writeBehindPersister).saveWeather(Mockito.any(Weather.class));
+        verify(weatherClient, never()).fetchPincodeGeo(Mockito.anyInt());
+        Weather cached = cacheManager.getCache(WeatherCacheKeys.CACHE_NAME)
+                .get(WeatherCacheKeys.of(560001, date), Weather.class);
+        assertEquals("light rain", cached.getDescription());
+        assertEquals(560001, cached.getPincode());
+    }
+
+    @Test
+    void refresh_whenHotKeyAlreadyExpired_thenLeftToNextMiss() {
+        read(147001, 5);
+        Mockito.when(batchOperations.getRemainingTtls(eq(WeatherCacheKeys.CACHE_NAME), anyCollection()))
+                .thenReturn(Map.of(WeatherCacheKeys.of(147001, date), Duration.ZERO));
+
+        assertEquals(0, subject.refresh());
+        Mockito.verifyNoInteractions(weatherClient);
+    }
+
+    @Test
+    void refresh_whenNoKeyIsHot_thenNoRemoteCalls() {
+        read(147001, 2);
+
+        assertEquals(0, subject.refresh());
+        Mockito.verifyNoInteractions(batchOperations, weatherClient);
+    }
+}
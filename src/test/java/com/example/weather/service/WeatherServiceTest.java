@@ -2,24 +2,37 @@ package com.example.weather.service;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import com.example.weather.cache.PincodeGeoIndex;
+import com.example.weather.client.ApiKeyPool;
 import com.example.weather.client.OpenWeatherClient;
+import com.example.weather.client.UpstreamThrottledException;
+import com.example.weather.client.UpstreamUnavailableException;
 import com.example.weather.entity.PincodeGeo;
 import com.example.weather.entity.Weather;
 import com.example.weather.exception.PincodeNotFoundException;
 import com.example.weather.exception.WeatherNotFoundException;
+import com.example.weather.exception.WeatherUnavailableException;
 import com.example.weather.repository.PincodeRepo;
 import com.example.weather.repository.WeatherRepo;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 @SpringBootTest
 public class WeatherServiceTest {
     
@@ -32,6 +45,20 @@ public class WeatherServiceTest {
     @Mock
      private WeatherRepo weatherRepo;
 
+    @Mock
+    private PincodeGeoIndex pincodeGeoIndex;
+
+    @Mock
+    private PincodeValidator pincodeValidator;
+
+    @Mock
+    private WriteBehindPersister writeBehindPersister;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private WeatherLookupMetrics lookupMetrics = new WeatherLookupMetrics(meterRegistry);
+
     @InjectMocks
     private WeatherService weatherService;
 
@@ -87,6 +114,30 @@ public class WeatherServiceTest {
         Assertions.assertEquals(expectedWeather.getDescription(), actualWeather.getDescription());
     }
 
+    @Test
+    void getWeather_whenDataNotPersisted_thenEveryStageTimedWithOutcome() throws Exception{
+        int pincode = getStubPincode();
+        LocalDate date = getStubDate();
+        PincodeGeo pincodeGeo = getStubPincodeGeo();
+
+        Mockito.when(weatherRepo.findByPincodeAndDate(pincode, date)).thenReturn(Optional.empty());
+        Mockito.when(pincodeRepo.findById(pincode)).thenReturn(Optional.empty());
+        Mockito.when(weatherClient.fetchPincodeGeo(pincode)).thenReturn(pincodeGeo);
+        Mockito.when(weatherClient.fetchWeather(pincodeGeo.getLatitude(), pincodeGeo.getLongitude(), date)).thenThrow(RestClientException.class);
+
+        assertThrows(WeatherNotFoundException.class, () -> weatherService.getWeather(pincode, date));
+
+        Assertions.assertEquals(1, stageCount("find-weather", "empty"));
+        Assertions.assertEquals(1, stageCount("find-pincode-geo", "empty"));
+        Assertions.assertEquals(1, stageCount("fetch-pincode-geo", "success"));
+        Assertions.assertEquals(1, stageCount("save-pincode-geo", "success"));
+        Assertions.assertEquals(1, stageCount("fetch-weather", "error"));
+    }
+
+    private long stageCount(String stage, String outcome) {
+        return meterRegistry.get("weather.lookup.stage").tag("stage", stage).tag("outcome", outcome).timer().count();
+    }
+
     @Test
     void getWeather_whenInvalidPincode_thenThrowsPincodeNotFoundException() throws Exception{
         int invalidPincode = 1234567;
@@ -159,4 +210,135 @@ public class WeatherServiceTest {
         Assertions.assertEquals(expectedWeather.getTemperature(), actualWeather.getTemperature());
         Assertions.assertEquals(expectedWeather.getDescription(), actualWeather.getDescription());
     }
+
+    @Test
+    void getWeather_whenPincodeIndexed_thenNoGeoLookupAndReturnsWeather() throws Exception{
+        int pincode = getStubPincode();
+        LocalDate date = getStubDate();
+        PincodeGeo pincodeGeo = getStubPincodeGeo();
+        Weather expectedWeather = getStubWeather();
+
+        Mockito.when(weatherRepo.findByPincodeAndDate(pincode, date)).thenReturn(Optional.empty());
+        indexed(pincodeGeo);
+        Mockito.when(weatherClient.fetchWeather(pincodeGeo.getLatitude(), pincodeGeo.getLongitude(), date)).thenReturn(expectedWeather);
+
+        Weather actualWeather = weatherService.getWeather(pincode, date);
+
+        Assertions.assertEquals(expectedWeather.getDescription(), actualWeather.getDescription());
+        Mockito.verify(pincodeRepo, Mockito.never()).findById(pincode);
+        Mockito.verify(weatherClient, Mockito.never()).fetchPincodeGeo(pincode);
+    }
+
+    @Test
+    void getWeather_whenPincodeRejected_thenThrowsWithoutLookup() throws Exception{
+        int pincode = 12345;
+        LocalDate date = getStubDate();
+
+        Mockito.when(pincodeValidator.isRejected(pincode)).thenReturn(true);
+
+        assertThrows(PincodeNotFoundException.class, () -> weatherService.getWeather(pincode, date));
+        Mockito.verifyNoInteractions(weatherRepo, pincodeRepo, weatherClient);
+    }
+
+    @Test
+    void getWeather_whenGeocodingFails_thenFailureRecorded() throws Exception{
+        int invalidPincode = 999999;
+        LocalDate date = getStubDate();
+        RestClientException failure = new RestClientException("Not Found");
+
+        Mockito.when(weatherRepo.findByPincodeAndDate(invalidPincode, date)).thenReturn(Optional.empty());
+        Mockito.when(pincodeRepo.findById(invalidPincode)).thenReturn(Optional.empty());
+        Mockito.when(weatherClient.fetchPincodeGeo(invalidPincode)).thenThrow(failure);
+
+        assertThrows(PincodeNotFoundException.class, () -> weatherService.getWeather(invalidPincode, date));
+        Mockito.verify(pincodeValidator).recordFailure(invalidPincode, failure);
+    }
+
+    @Test
+    void getWeather_whenCircuitOpen_thenLatestPersistedWeatherServedStale() throws Exception{
+        int pincode = getStubPincode();
+        LocalDate date = getStubDate().plusDays(3);
+        Weather latest = getStubWeather();
+
+        Mockito.when(weatherRepo.findByPincodeAndDate(pincode, date)).thenReturn(Optional.empty());
+        indexed(getStubPincodeGeo());
+        Mockito.when(weatherClient.fetchWeather(0, 0, date)).thenThrow(new UpstreamUnavailableException("open"));
+        Mockito.when(weatherRepo.findFirstByPincodeOrderByDateDesc(pincode)).thenReturn(Optional.of(latest));
+
+        Weather actualWeather = weatherService.getWeather(pincode, date);
+
+        assertTrue(actualWeather.isStale());
+        Assertions.assertEquals(getStubDate(), actualWeather.getDate());
+        Mockito.verify(writeBehindPersister, Mockito.never()).saveWeather(Mockito.any());
+    }
+
+    @Test
+    void getWeather_whenCircuitOpenAndNothingPersisted_thenWeatherUnavailable() throws Exception{
+        int pincode = getStubPincode();
+        LocalDate date = getStubDate();
+
+        Mockito.when(weatherRepo.findByPincodeAndDate(pincode, date)).thenReturn(Optional.empty());
+        Mockito.when(pincodeRepo.findById(pincode)).thenReturn(Optional.empty());
+        Mockito.when(weatherClient.fetchPincodeGeo(pincode)).thenThrow(new UpstreamUnavailableException("open"));
+        Mockito.when(weatherRepo.findFirstByPincodeOrderByDateDesc(pincode)).thenReturn(Optional.empty());
+
+        assertThrows(WeatherUnavailableException.class, () -> weatherService.getWeather(pincode, date));
+        Mockito.verify(pincodeValidator, Mockito.never()).recordFailure(Mockito.anyInt(), Mockito.any());
+    }
+
+    @Test
+    void getWeather_whenWeatherCallThrottled_thenWeatherUnavailable() throws Exception{
+        int pincode = getStubPincode();
+        LocalDate date = getStubDate();
+
+        Mockito.when(weatherRepo.findByPincodeAndDate(pincode, date)).thenReturn(Optional.empty());
+        indexed(getStubPincodeGeo());
+        Mockito.when(weatherClient.fetchWeather(0, 0, date)).thenThrow(new UpstreamThrottledException("queue full"));
+
+        assertThrows(WeatherUnavailableException.class, () -> weatherService.getWeather(pincode, date));
+        Mockito.verify(writeBehindPersister, Mockito.never()).saveWeather(Mockito.any());
+    }
+
+    @Test
+    void getWeather_whenGeocodingThrottled_thenWeatherUnavailableAndPincodeNotRecorded() throws Exception{
+        int pincode = getStubPincode();
+        LocalDate date = getStubDate();
+
+        Mockito.when(weatherRepo.findByPincodeAndDate(pincode, date)).thenReturn(Optional.empty());
+        Mockito.when(pincodeRepo.findById(pincode)).thenReturn(Optional.empty());
+        Mockito.when(weatherClient.fetchPincodeGeo(pincode)).thenThrow(new UpstreamThrottledException("timed out"));
+
+        assertThrows(WeatherUnavailableException.class, () -> weatherService.getWeather(pincode, date));
+        Mockito.verify(pincodeValidator, Mockito.never()).recordFailure(Mockito.anyInt(), Mockito.any());
+    }
+
+    @Test
+    void getWeather_whenEveryApiKeyBenched_thenWeatherUnavailableWithoutCall() throws Exception{
+        int pincode = getStubPincode();
+        LocalDate date = getStubDate();
+        ApiKeyPool keyPool = new ApiKeyPool(List.of("rotated"), 100, 100, Duration.ofMinutes(5),
+                Duration.ofSeconds(30), meterRegistry, "openweather");
+        keyPool.acquire().release(HttpClientErrorException.create(HttpStatus.UNAUTHORIZED, "", null, null, null));
+        RestTemplate restTemplate = Mockito.mock(RestTemplate.class);
+        OpenWeatherClient client = new OpenWeatherClient(restTemplate, "http://localhost", "rotated", false,
+                Optional.of(keyPool), Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty());
+        WeatherService subject = new WeatherService(weatherRepo, pincodeRepo, client, pincodeGeoIndex,
+                pincodeValidator, writeBehindPersister, lookupMetrics);
+
+        Mockito.when(weatherRepo.findByPincodeAndDate(pincode, date)).thenReturn(Optional.empty());
+        Mockito.when(pincodeRepo.findById(pincode)).thenReturn(Optional.empty());
+
+        assertThrows(WeatherUnavailableException.class, () -> subject.getWeather(pincode, date));
+        Mockito.verifyNoInteractions(restTemplate);
+    }
+
+    private void indexed(PincodeGeo pincodeGeo) {
+        Mockito.when(pincodeGeoIndex.find(Mockito.eq(pincodeGeo.getPincode().intValue()), Mockito.any(double[].class)))
+                .thenAnswer(invocation -> {
+                    double[] coordinates = invocation.getArgument(1);
+                    coordinates[0] = pincodeGeo.getLatitude();
+                    coordinates[1] = pincodeGeo.getLongitude();
+                    return true;
+                });
+    }
 }
@@ -0,0 +1,110 @@
+package com.example.weather.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class WriteBehindQueueTest {
+
+    private final List<List<Integer>> batches = Collections.synchronizedList(new ArrayList<>());
+
+    private final List<String> writerThreads = Collections.synchronizedList(new ArrayList<>());
+
+    private WriteBehindQueue<Integer> subject;
+
+    @AfterEach
+    public void tearDown() {
+        if (subject != null) {
+            subject.close();
+        }
+    }
+
+    private WriteBehindQueue<Integer> queue(Consumer<List<Integer>> writer, int capacity, int batchSize,
+            Duration flushInterval) {
+        return new WriteBehindQueue<>("test", batch -> {
+            writerThreads.add(Thread.currentThread().getName());
+            writer.accept(batch);
+        }, capacity, batchSize, flushInterval, Duration.ofMillis(20), Duration.ofSeconds(5));
+    }
+
+    @Test
+    void submit_whenBatchSizeReached_thenFlushesWithoutWaitingForInterval() throws Exception {
+        CountDownLatch flushed = new CountDownLatch(1);
+        subject = queue(batch -> {
+            batches.add(new ArrayList<>(batch));
+            flushed.countDown();
+        }, 100, 3, Duration.ofSeconds(30));
+
+        subject.submit(1);
+        subject.submit(2);
+        subject.submit(3);
+
+        assertTrue(flushed.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(1, 2, 3), batches.get(0));
+    }
+
+    @Test
+    void submit_whenBatchNotFull_thenFlushesAfterInterval() throws Exception {
+        CountDownLatch flushed = new CountDownLatch(1);
+        subject = queue(batch -> {
+            batches.add(new ArrayList<>(batch));
+            flushed.countDown();
+        }, 100, 50, Duration.ofMillis(50));
+
+        subject.submit(1);
+
+        assertTrue(flushed.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(1), batches.get(0));
+    }
+
+    @Test
+    void submit_whenQueueFull_thenCallerWritesItself() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        subject = queue(batch -> {
+            if (writerThreads.size() == 1) {
+                await(release);
+            }
+            batches.add(new ArrayList<>(batch));
+        }, 1, 1, Duration.ofMillis(10));
+
+        subject.submit(1); // taken by the flusher, which then blocks in the writer
+        while (writerThreads.isEmpty()) {
+            Thread.onSpinWait();
+        }
+        subject.submit(2); // fills the queue
+        subject.submit(3); // no room left
+
+        assertEquals(Thread.currentThread().getName(), writerThreads.get(1));
+        assertEquals(List.of(3), batches.get(0));
+        release.countDown();
+    }
+
+    @Test
+    void close_whenItemsQueued_thenDrainsThemBeforeReturning() {
+        subject = queue(batch -> batches.add(new ArrayList<>(batch)), 1000, 100, Duration.ofSeconds(30));
+        for (int i = 0; i < 250; i++) {
+            subject.submit(i);
+        }
+
+        subject.close();
+
+        assertEquals(250, batches.stream().mapToInt(List::size).sum());
+        assertEquals(0, subject.pending());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}